@@ -0,0 +1,106 @@
+package com.jeferson.trajefino.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.jeferson.trajefino.model.enums.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização das listas devolvidas pelos endpoints, com a mesma configuração de datas do Spring Boot
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"50", "200"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<Address> addresses;
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        products = new ArrayList<>(size);
+        addresses = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            products.add(Product.builder()
+                    .id((long) i)
+                    .name("Terno slim " + i)
+                    .description("Terno de lã fria com corte slim, forro em viscose")
+                    .price(new BigDecimal("899.90"))
+                    .stock(i % 40)
+                    .category("TERNOS")
+                    .brand("Trajefino")
+                    .barcode(String.format("789%010d", i))
+                    .active(true)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+
+            User user = User.builder()
+                    .id(i)
+                    .name("Cliente " + i)
+                    .userName("cliente" + i)
+                    .password("$2a$10$abcdefghijklmnopqrstuu5J0E8hJ6cZpX3Qy2m8bGZ5bY0b1cW3e")
+                    .fullName("Cliente Número " + i)
+                    .birthDate("1990-01-01")
+                    .role(UserRole.ROLE_CUSTOMER)
+                    .createdAt(now)
+                    .enabled(true)
+                    .build();
+            Address address = Address.builder()
+                    .id((long) i)
+                    .street("Rua das Flores")
+                    .number(String.valueOf(i))
+                    .neighborhood("Centro")
+                    .city("São Paulo")
+                    .state("SP")
+                    .zipCode("01001-000")
+                    .country("Brasil")
+                    .addressType("HOME")
+                    .isDefault(true)
+                    .user(user)
+                    .build();
+            user.getAddresses().add(address);
+            addresses.add(address);
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public byte[] products() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] addresses() throws Exception {
+        return objectMapper.writeValueAsBytes(addresses);
+    }
+
+    @Benchmark
+    public byte[] users() throws Exception {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
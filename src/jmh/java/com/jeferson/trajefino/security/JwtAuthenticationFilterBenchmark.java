@@ -0,0 +1,76 @@
+package com.jeferson.trajefino.security;
+
+import com.jeferson.trajefino.model.dto.UserSecurityState;
+import com.jeferson.trajefino.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Custo por requisição do filtro JWT, com repositório simulado e cadeia de filtros vazia
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtService jwtService = new JwtService(JwtServiceBenchmark.SECRET, JwtServiceBenchmark.EXPIRATION, 10_000, meterRegistry);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findSecurityStateById(anyLong())).thenReturn(Optional.of(new UserSecurityState(0L, true)));
+        PrincipalVersionCache principalVersionCache = new PrincipalVersionCache(userRepository, 10_000, Duration.ofMinutes(5),
+                meterRegistry);
+
+        filter = new JwtAuthenticationFilter(jwtService, userName -> {
+            throw new UsernameNotFoundException(userName);
+        }, principalVersionCache);
+        authorization = "Bearer " + jwtService.generateToken(JwtServiceBenchmark.benchmarkUser());
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/product");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymousRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/product");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package com.jeferson.trajefino.security;
+
+import com.jeferson.trajefino.model.User;
+import com.jeferson.trajefino.model.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de emitir e validar tokens; "uncached" mede a verificação HMAC sem o cache de tokens
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "642b6ffc208b37de0d72a844664dfdb839e11fec07fe90bb314cb8aaee427ef3";
+    static final long EXPIRATION = 86_400_000L;
+
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(SECRET, EXPIRATION, 10_000, meterRegistry);
+        uncachedJwtService = new JwtService(SECRET, EXPIRATION, 0, meterRegistry);
+        user = benchmarkUser();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, user);
+    }
+
+    @Benchmark
+    public Claims verifyTokenUncached() {
+        return uncachedJwtService.verifyToken(token);
+    }
+
+    static User benchmarkUser() {
+        return User.builder()
+                .id(42L)
+                .name("Bench")
+                .userName("bench.user")
+                .password("$2a$10$abcdefghijklmnopqrstuu5J0E8hJ6cZpX3Qy2m8bGZ5bY0b1cW3e")
+                .fullName("Bench User")
+                .role(UserRole.ROLE_ADMIN)
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.model.AddressDTO;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.ProductDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Validação manual dos DTOs de produto e endereço, nos caminhos válido e inválido
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    private ProductDTO validProduct;
+    private ProductDTO invalidProduct;
+    private AddressDTO validAddress;
+    private AddressDTO invalidAddress;
+
+    @Setup
+    public void setup() {
+        validProduct = ProductDTO.builder()
+                .name("Terno slim")
+                .price(new BigDecimal("899.90"))
+                .stock(10)
+                .category("TERNOS")
+                .brand("Trajefino")
+                .barcode("7890000000001")
+                .build();
+        invalidProduct = ProductDTO.builder()
+                .name("Terno slim")
+                .price(BigDecimal.ZERO)
+                .build();
+        validAddress = AddressDTO.builder()
+                .street("Rua das Flores")
+                .city("São Paulo")
+                .state("SP")
+                .zipCode("01001-000")
+                .userId(1L)
+                .build();
+        invalidAddress = AddressDTO.builder()
+                .street("Rua das Flores")
+                .city("São Paulo")
+                .state("SAO")
+                .zipCode("01001-000")
+                .userId(1L)
+                .build();
+    }
+
+    @Benchmark
+    public boolean validateProduct() {
+        return validate(() -> ProductService.validateProductDTO(validProduct, true));
+    }
+
+    @Benchmark
+    public boolean validateInvalidProduct() {
+        return validate(() -> ProductService.validateProductDTO(invalidProduct, true));
+    }
+
+    @Benchmark
+    public Product buildProduct() {
+        return ProductService.buildProduct(validProduct);
+    }
+
+    @Benchmark
+    public boolean validateAddress() {
+        return validate(() -> AddressService.validateAddressDTO(validAddress, true));
+    }
+
+    @Benchmark
+    public boolean validateInvalidAddress() {
+        return validate(() -> AddressService.validateAddressDTO(invalidAddress, true));
+    }
+
+    // O caminho inválido inclui o custo de criar a exceção com stack trace, como em produção
+    private static boolean validate(Validation validation) {
+        try {
+            validation.run();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Validation {
+        void run() throws Exception;
+    }
+}
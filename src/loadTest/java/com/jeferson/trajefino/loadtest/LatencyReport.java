@@ -0,0 +1,123 @@
+package com.jeferson.trajefino.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramas de latência por endpoint (em microssegundos, até 60 s, 3 dígitos significativos).
+ * O relatório usa chaves ordenadas e valores arredondados para que dois builds possam ser comparados com diff.
+ */
+final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    private static final class Endpoint {
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+
+    void record(String endpoint, long elapsedNanos, int status) {
+        Endpoint entry = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        entry.histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS));
+        entry.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (status < 200 || status >= 400) {
+            entry.errors.increment();
+        }
+    }
+
+    // Descarta o aquecimento e marca o início da janela medida
+    void start() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+    }
+
+    void stop() {
+        stoppedAt = System.nanoTime();
+    }
+
+    void write(LoadTestConfig config, ObjectMapper objectMapper) throws IOException {
+        Path histogramDir = config.reportDir().resolve("histograms-" + config.version());
+        Files.createDirectories(histogramDir);
+        double seconds = (stoppedAt - startedAt) / 1e9;
+
+        ObjectNode summary = objectMapper.createObjectNode();
+        summary.putObject("config")
+                .put("concurrency", config.concurrency())
+                .put("durationSeconds", config.duration().toSeconds())
+                .put("mix", config.mix().name())
+                .put("products", config.products())
+                .put("users", config.users())
+                .put("version", config.version());
+
+        ObjectNode results = summary.putObject("endpoints");
+        long totalCount = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            totalCount += histogram.getTotalCount();
+
+            ObjectNode result = results.putObject(entry.getKey());
+            result.put("count", histogram.getTotalCount())
+                    .put("errors", entry.getValue().errors.sum())
+                    .put("throughputPerSecond", round(histogram.getTotalCount() / seconds))
+                    .put("p50Ms", millis(histogram.getValueAtPercentile(50)))
+                    .put("p90Ms", millis(histogram.getValueAtPercentile(90)))
+                    .put("p99Ms", millis(histogram.getValueAtPercentile(99)))
+                    .put("p999Ms", millis(histogram.getValueAtPercentile(99.9)))
+                    .put("maxMs", millis(histogram.getMaxValue()));
+            ObjectNode statuses = result.putObject("statuses");
+            new TreeMap<>(entry.getValue().statuses).forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+
+            // Distribuição completa no formato .hgrm (plotável em hdrhistogram.github.io/HdrHistogram/plotFiles.html)
+            try (PrintStream out = new PrintStream(Files.newOutputStream(histogramDir.resolve(fileName(entry.getKey()) + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        summary.put("totalThroughputPerSecond", round(totalCount / seconds));
+
+        Path summaryFile = config.reportDir().resolve("summary-" + config.version() + ".json");
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(summaryFile.toFile(), summary);
+        print(results);
+        System.out.println("Relatório gravado em " + summaryFile.toAbsolutePath());
+    }
+
+    private static void print(ObjectNode results) {
+        System.out.printf("%-45s %9s %7s %10s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        results.properties().forEach(entry -> {
+            var result = entry.getValue();
+            System.out.printf("%-45s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    result.get("count").asLong(), result.get("errors").asLong(), result.get("throughputPerSecond").asDouble(),
+                    result.get("p50Ms").asDouble(), result.get("p99Ms").asDouble(),
+                    result.get("p999Ms").asDouble(), result.get("maxMs").asDouble());
+        });
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+}
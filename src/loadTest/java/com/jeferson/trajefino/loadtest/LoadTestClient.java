@@ -0,0 +1,67 @@
+package com.jeferson.trajefino.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+// Cliente HTTP autenticado com o token do administrador do teste
+final class LoadTestClient {
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private volatile String token;
+
+    LoadTestClient(String baseUrl, ObjectMapper objectMapper) {
+        this.http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    void authenticate(String userName, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST", "/auth/login",
+                objectMapper.createObjectNode().put("userName", userName).put("password", password));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login do administrador falhou: " + response.statusCode() + " " + response.body());
+        }
+        token = objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return send("GET", path, null);
+    }
+
+    HttpResponse<String> send(String method, String path, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json, application/x-ndjson");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+}
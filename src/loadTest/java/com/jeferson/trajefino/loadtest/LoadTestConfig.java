@@ -0,0 +1,43 @@
+package com.jeferson.trajefino.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Parâmetros do teste de carga, lidos das system properties repassadas pela task Gradle
+ * (ex.: ./gradlew loadTest -PloadTest.concurrency=128 -PloadTest.mix=WRITE).
+ */
+record LoadTestConfig(int concurrency,
+                      Duration warmup,
+                      Duration duration,
+                      int products,
+                      int users,
+                      Mix mix,
+                      Path reportDir,
+                      String version) {
+
+    // Proporção de operações de escrita em cada perfil de carga
+    enum Mix {
+        READ(0.05),
+        MIXED(0.3),
+        WRITE(0.7);
+
+        final double writeRatio;
+
+        Mix(double writeRatio) {
+            this.writeRatio = writeRatio;
+        }
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadTest.concurrency", 32),
+                Duration.parse("PT" + System.getProperty("loadTest.warmup", "10s")),
+                Duration.parse("PT" + System.getProperty("loadTest.duration", "60s")),
+                Integer.getInteger("loadTest.products", 2000),
+                Integer.getInteger("loadTest.users", 200),
+                Mix.valueOf(System.getProperty("loadTest.mix", "MIXED").toUpperCase()),
+                Path.of(System.getProperty("loadTest.reportDir", "build/reports/load-test")),
+                System.getProperty("loadTest.version", "dev"));
+    }
+}
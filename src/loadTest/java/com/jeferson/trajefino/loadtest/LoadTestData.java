@@ -0,0 +1,71 @@
+package com.jeferson.trajefino.loadtest;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IDs semeados antes da medição e IDs criados durante a carga. Operações destrutivas
+ * (DELETE, PUT de usuário) atuam apenas sobre o que a própria carga criou.
+ */
+final class LoadTestData {
+
+    static final String PASSWORD = "loadtest123";
+    static final String[] CATEGORIES = {"TERNOS", "CAMISAS", "GRAVATAS", "SAPATOS", "CINTOS", "BLAZERS", "CALCAS", "ACESSORIOS"};
+    static final String[] SEARCH_TERMS = {"terno", "camisa slim", "gravata seda", "sapato", "cinto couro", "blazer", "calca", "abotoadura"};
+
+    final long[] productIds;
+    final long[] userIds;
+    final String[] userNames;
+    final long[] defaultAddressIds;
+    final long[] addressIds;
+
+    final Queue<Long> createdProducts = new ConcurrentLinkedQueue<>();
+    final Queue<Long> createdAddresses = new ConcurrentLinkedQueue<>();
+    final Queue<Long> createdUsers = new ConcurrentLinkedQueue<>();
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    LoadTestData(long[] productIds, long[] userIds, String[] userNames, long[] defaultAddressIds, long[] addressIds) {
+        this.productIds = productIds;
+        this.userIds = userIds;
+        this.userNames = userNames;
+        this.defaultAddressIds = defaultAddressIds;
+        this.addressIds = addressIds;
+    }
+
+    long productId(ThreadLocalRandom random) {
+        return productIds[random.nextInt(productIds.length)];
+    }
+
+    String barcode(ThreadLocalRandom random) {
+        return seededBarcode(random.nextInt(productIds.length));
+    }
+
+    static String seededBarcode(int index) {
+        return String.format("789%010d", index);
+    }
+
+    int userIndex(ThreadLocalRandom random) {
+        return random.nextInt(userIds.length);
+    }
+
+    long addressId(ThreadLocalRandom random) {
+        return addressIds[random.nextInt(addressIds.length)];
+    }
+
+    String category(ThreadLocalRandom random) {
+        return CATEGORIES[random.nextInt(CATEGORIES.length)];
+    }
+
+    String searchTerm(ThreadLocalRandom random) {
+        return SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "%20");
+    }
+
+    // Identificador único para barcodes e usernames criados durante a carga
+    String nextKey() {
+        return runId + "-" + sequence.incrementAndGet();
+    }
+}
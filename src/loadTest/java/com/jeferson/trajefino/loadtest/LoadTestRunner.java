@@ -0,0 +1,224 @@
+package com.jeferson.trajefino.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jeferson.trajefino.TrajefinoApplication;
+import com.jeferson.trajefino.model.Address;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.User;
+import com.jeferson.trajefino.model.enums.UserRole;
+import com.jeferson.trajefino.repository.ProductRepository;
+import com.jeferson.trajefino.repository.UserRepository;
+import com.jeferson.trajefino.service.ActiveProductSnapshot;
+import com.jeferson.trajefino.service.BarcodeIndex;
+import com.jeferson.trajefino.service.ProductFacetIndex;
+import com.jeferson.trajefino.service.ProductSearchIndex;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sobe a aplicação contra um PostgreSQL embarcado, semeia dados e dispara a carga mista com
+ * N clientes em loop fechado. Executado pela task {@code ./gradlew loadTest}.
+ */
+public final class LoadTestRunner {
+
+    private static final String ADMIN_USER = "loadtest-admin";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Files.createDirectories(config.reportDir());
+        Path journalDir = Files.createTempDirectory("trajefino-stock-journal");
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(TrajefinoApplication.class)
+                     .run(applicationArgs(postgres, journalDir))) {
+
+            LoadTestData data = seed(context, config);
+            rebuildIndexes(context);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            String port = context.getEnvironment().getProperty("local.server.port");
+            LoadTestClient client = new LoadTestClient("http://localhost:" + port, objectMapper);
+            client.authenticate(ADMIN_USER, LoadTestData.PASSWORD);
+            checkSeedVisible(client);
+
+            LatencyReport report = run(config, client, data);
+            report.write(config, objectMapper);
+        }
+    }
+
+    // Argumentos de linha de comando têm precedência sobre o application.yml
+    private static String[] applicationArgs(EmbeddedPostgres postgres, Path journalDir) {
+        return new String[]{
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--stock.reservation.journal-dir=" + journalDir,
+                // Todos os clientes saem do mesmo IP: o throttle de login não pode distorcer a medição
+                "--auth.throttle.username.capacity=1000000",
+                "--auth.throttle.ip.capacity=1000000",
+                "--logging.level.root=WARN"
+        };
+    }
+
+    private static LoadTestData seed(ConfigurableApplicationContext context, LoadTestConfig config) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        // Um único hash para todos os usuários semeados: o BCrypt não entra no tempo de preparação
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(LoadTestData.PASSWORD);
+        LocalDateTime now = LocalDateTime.now();
+
+        userRepository.save(User.builder()
+                .userName(ADMIN_USER)
+                .name("Admin")
+                .fullName("Administrador do teste de carga")
+                .password(passwordHash)
+                .role(UserRole.ROLE_ADMIN)
+                .createdAt(now)
+                .enabled(true)
+                .build());
+
+        List<User> customers = new ArrayList<>(config.users());
+        for (int i = 0; i < config.users(); i++) {
+            User user = User.builder()
+                    .userName("loadtest-customer-" + i)
+                    .name("Cliente")
+                    .fullName("Cliente de carga " + i)
+                    .password(passwordHash)
+                    .birthDate("1990-01-01")
+                    .role(UserRole.ROLE_CUSTOMER)
+                    .createdAt(now)
+                    .enabled(true)
+                    .build();
+            user.getAddresses().add(address(user, "HOME", true, i));
+            user.getAddresses().add(address(user, "WORK", false, i));
+            customers.add(user);
+        }
+        customers = userRepository.saveAll(customers);
+
+        List<Product> products = new ArrayList<>(config.products());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < config.products(); i++) {
+            String category = LoadTestData.CATEGORIES[i % LoadTestData.CATEGORIES.length];
+            products.add(Product.builder()
+                    .name(LoadTestData.SEARCH_TERMS[i % LoadTestData.SEARCH_TERMS.length] + " modelo " + i)
+                    .description("Produto semeado para o teste de carga")
+                    .price(BigDecimal.valueOf(random.nextInt(5_000, 200_000), 2))
+                    .stock(1_000_000)
+                    .category(category)
+                    .brand("Trajefino")
+                    .barcode(LoadTestData.seededBarcode(i))
+                    .active(i % 10 != 0)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        long[] productIds = productRepository.saveAll(products).stream().mapToLong(Product::getId).toArray();
+
+        long[] userIds = new long[customers.size()];
+        String[] userNames = new String[customers.size()];
+        long[] defaultAddressIds = new long[customers.size()];
+        long[] addressIds = new long[customers.size() * 2];
+        for (int i = 0; i < customers.size(); i++) {
+            User user = customers.get(i);
+            userIds[i] = user.getId();
+            userNames[i] = user.getUsername();
+            defaultAddressIds[i] = user.getAddresses().get(0).getId();
+            addressIds[2 * i] = user.getAddresses().get(0).getId();
+            addressIds[2 * i + 1] = user.getAddresses().get(1).getId();
+        }
+        return new LoadTestData(productIds, userIds, userNames, defaultAddressIds, addressIds);
+    }
+
+    // A semeadura grava direto pelos repositórios, sem ProductChangedEvent: as estruturas em memória
+    // montadas no ApplicationReadyEvent ainda refletem a tabela vazia e precisam ser remontadas
+    private static void rebuildIndexes(ConfigurableApplicationContext context) {
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(ProductFacetIndex.class).rebuild();
+        context.getBean(BarcodeIndex.class).rebuild();
+        context.getBean(ActiveProductSnapshot.class).load();
+    }
+
+    // Sem isso a carga mediria os caminhos rápidos de um catálogo vazio
+    private static void checkSeedVisible(LoadTestClient client) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.get("/product/active?size=50");
+        if (response.statusCode() != 200 || client.json(response).path("items").isEmpty()) {
+            throw new IllegalStateException("GET /product/active não devolveu os produtos semeados (status "
+                    + response.statusCode() + ")");
+        }
+    }
+
+    private static Address address(User user, String type, boolean isDefault, int index) {
+        return Address.builder()
+                .street("Rua Semeada")
+                .number(String.valueOf(index))
+                .neighborhood("Centro")
+                .city("São Paulo")
+                .state("SP")
+                .zipCode("01001-000")
+                .country("Brasil")
+                .addressType(type)
+                .isDefault(isDefault)
+                .user(user)
+                .build();
+    }
+
+    private static LatencyReport run(LoadTestConfig config, LoadTestClient client, LoadTestData data) throws InterruptedException {
+        Workload workload = new Workload(config.mix());
+        LatencyReport report = new LatencyReport();
+        long deadline = System.nanoTime() + config.warmup().toNanos() + config.duration().toNanos();
+
+        System.out.printf("Carga %s com %d clientes: %ds de aquecimento + %ds medidos%n", config.mix(),
+                config.concurrency(), config.warmup().toSeconds(), config.duration().toSeconds());
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.concurrency(); i++) {
+                clients.submit(() -> drive(workload, client, data, report, deadline));
+            }
+            TimeUnit.NANOSECONDS.sleep(config.warmup().toNanos());
+            report.start();
+        }
+        report.stop();
+        return report;
+    }
+
+    // Loop fechado: cada cliente dispara a próxima requisição assim que a anterior termina
+    private static void drive(Workload workload, LoadTestClient client, LoadTestData data, LatencyReport report, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = workload.next(random);
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = operation.call().execute(client, data, random);
+                if (response != null) {
+                    report.record(operation.endpoint(), System.nanoTime() - start, response.statusCode());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Falha de transporte: conta como erro com status 0
+                report.record(operation.endpoint(), System.nanoTime() - start, 0);
+            }
+        }
+    }
+}
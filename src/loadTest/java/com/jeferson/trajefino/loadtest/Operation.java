@@ -0,0 +1,25 @@
+package com.jeferson.trajefino.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Uma chamada a um endpoint, identificada pela rota (ex.: "GET /product/{id}") para agrupar a latência.
+ * O peso define a frequência relativa dentro do grupo de leitura ou de escrita.
+ */
+record Operation(String endpoint, boolean write, int weight, Call call) {
+
+    @FunctionalInterface
+    interface Call {
+        // Devolve null quando não há alvo disponível (ex.: nenhum produto criado para excluir)
+        HttpResponse<String> execute(LoadTestClient client, LoadTestData data, ThreadLocalRandom random) throws Exception;
+    }
+
+    static Operation read(String endpoint, int weight, Call call) {
+        return new Operation(endpoint, false, weight, call);
+    }
+
+    static Operation write(String endpoint, int weight, Call call) {
+        return new Operation(endpoint, true, weight, call);
+    }
+}
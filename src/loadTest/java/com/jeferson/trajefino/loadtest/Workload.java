@@ -0,0 +1,255 @@
+package com.jeferson.trajefino.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.jeferson.trajefino.loadtest.Operation.read;
+import static com.jeferson.trajefino.loadtest.Operation.write;
+
+/**
+ * Mistura de operações sobre todos os endpoints de ProductController, AddressController,
+ * UserController e AuthController. Os pesos aproximam o tráfego da loja: leituras de
+ * produto dominam, e login/cadastro (BCrypt) são raros.
+ */
+final class Workload {
+
+    private final Operation[] reads;
+    private final Operation[] writes;
+    private final int readWeight;
+    private final int writeWeight;
+    private final double writeRatio;
+
+    Workload(LoadTestConfig.Mix mix) {
+        List<Operation> operations = operations();
+        this.reads = operations.stream().filter(operation -> !operation.write()).toArray(Operation[]::new);
+        this.writes = operations.stream().filter(Operation::write).toArray(Operation[]::new);
+        this.readWeight = totalWeight(reads);
+        this.writeWeight = totalWeight(writes);
+        this.writeRatio = mix.writeRatio;
+    }
+
+    Operation next(ThreadLocalRandom random) {
+        return random.nextDouble() < writeRatio
+                ? pick(writes, writeWeight, random)
+                : pick(reads, readWeight, random);
+    }
+
+    private static Operation pick(Operation[] operations, int totalWeight, ThreadLocalRandom random) {
+        int target = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            target -= operation.weight();
+            if (target < 0) {
+                return operation;
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static int totalWeight(Operation[] operations) {
+        int total = 0;
+        for (Operation operation : operations) {
+            total += operation.weight();
+        }
+        return total;
+    }
+
+    static List<Operation> operations() {
+        return List.of(
+                // ProductController
+                read("GET /product", 6, (client, data, random) -> client.get("/product?size=50")),
+                read("GET /product/active", 6, (client, data, random) -> client.get("/product/active?size=50")),
+                read("GET /product/export", 1, (client, data, random) -> client.get("/product/export")),
+                read("GET /product/cache/stats", 1, (client, data, random) -> client.get("/product/cache/stats")),
+                read("GET /product/{id}", 30, (client, data, random) -> client.get("/product/" + data.productId(random))),
+                read("GET /product/category/{category}", 8, (client, data, random) ->
+                        client.get("/product/category/" + data.category(random) + "?size=50")),
+                read("GET /product/search", 8, (client, data, random) ->
+                        client.get("/product/search?name=" + data.searchTerm(random))),
+                read("GET /product/query", 6, (client, data, random) ->
+                        client.get("/product/query?category=" + data.category(random)
+                                + "&active=true&minPrice=" + random.nextInt(100) + "&sort=price,desc&size=50")),
+                read("GET /product/facets", 4, (client, data, random) -> random.nextBoolean()
+                        ? client.get("/product/facets?category=" + data.category(random))
+                        : client.get("/product/facets?q=" + data.searchTerm(random))),
+                read("GET /product/barcode/{code}", 6, (client, data, random) ->
+                        client.get("/product/barcode/" + data.barcode(random))),
+                read("POST /product/barcode/lookup", 2, (client, data, random) -> {
+                    ArrayNode barcodes = client.objectMapper().createArrayNode();
+                    for (int i = 0; i < 20; i++) {
+                        barcodes.add(data.barcode(random));
+                    }
+                    return client.send("POST", "/product/barcode/lookup", barcodes);
+                }),
+                write("POST /product", 6, (client, data, random) -> {
+                    HttpResponse<String> response = client.send("POST", "/product", product(client, data, random));
+                    remember(client, response, data.createdProducts);
+                    return response;
+                }),
+                write("POST /product/batch", 1, (client, data, random) -> {
+                    ArrayNode products = client.objectMapper().createArrayNode();
+                    for (int i = 0; i < 10; i++) {
+                        products.add(product(client, data, random));
+                    }
+                    HttpResponse<String> response = client.send("POST", "/product/batch", products);
+                    if (response.statusCode() == 200) {
+                        for (JsonNode item : client.json(response).path("items")) {
+                            if (item.hasNonNull("id")) {
+                                data.createdProducts.add(item.get("id").asLong());
+                            }
+                        }
+                    }
+                    return response;
+                }),
+                write("PUT /product/batch", 1, (client, data, random) -> {
+                    ArrayNode items = client.objectMapper().createArrayNode();
+                    for (int i = 0; i < 10; i++) {
+                        items.addObject()
+                                .put("id", data.productId(random))
+                                .set("product", product(client, data, random));
+                    }
+                    return client.send("PUT", "/product/batch", items);
+                }),
+                write("PUT /product/{id}", 4, (client, data, random) -> reuse(data.createdProducts, id ->
+                        client.send("PUT", "/product/" + id, product(client, data, random)))),
+                write("PATCH /product/{id}", 4, (client, data, random) -> client.send("PATCH", "/product/" + data.productId(random),
+                        client.objectMapper().createObjectNode().put("price", price(random)))),
+                write("PATCH /product/{id}/deactivate", 1, (client, data, random) -> reuse(data.createdProducts, id ->
+                        client.send("PATCH", "/product/" + id + "/deactivate", null))),
+                write("DELETE /product/{id}", 3, (client, data, random) -> consume(data.createdProducts, id ->
+                        client.send("DELETE", "/product/" + id, null))),
+                write("POST /product/{id}/stock/adjust", 6, (client, data, random) ->
+                        client.send("POST", "/product/" + data.productId(random) + "/stock/adjust",
+                                client.objectMapper().createObjectNode().put("delta", random.nextBoolean() ? 1 : -1))),
+                write("POST /product/stock/adjust", 2, (client, data, random) -> {
+                    ArrayNode adjustments = client.objectMapper().createArrayNode();
+                    for (int i = 0; i < 10; i++) {
+                        adjustments.addObject()
+                                .put("productId", data.productId(random))
+                                .put("delta", random.nextBoolean() ? 1 : -1);
+                    }
+                    return client.send("POST", "/product/stock/adjust", adjustments);
+                }),
+
+                // AddressController
+                read("GET /address/user/{userId}", 8, (client, data, random) ->
+                        client.get("/address/user/" + data.userIds[data.userIndex(random)])),
+                read("GET /address/user/{userId}/default", 6, (client, data, random) ->
+                        client.get("/address/user/" + data.userIds[data.userIndex(random)] + "/default")),
+                read("GET /address/{id}", 8, (client, data, random) -> client.get("/address/" + data.addressId(random))),
+                write("POST /address", 3, (client, data, random) -> {
+                    HttpResponse<String> response = client.send("POST", "/address",
+                            address(client, random).put("userId", data.userIds[data.userIndex(random)]));
+                    remember(client, response, data.createdAddresses);
+                    return response;
+                }),
+                write("PUT /address/{id}", 2, (client, data, random) -> reuse(data.createdAddresses, id ->
+                        client.send("PUT", "/address/" + id,
+                                address(client, random).put("userId", data.userIds[data.userIndex(random)])))),
+                write("PATCH /address/{id}", 2, (client, data, random) -> reuse(data.createdAddresses, id ->
+                        client.send("PATCH", "/address/" + id,
+                                client.objectMapper().createObjectNode().put("complement", "Apto " + random.nextInt(1, 500))))),
+                write("PATCH /address/{id}/set-default", 1, (client, data, random) ->
+                        client.send("PATCH", "/address/" + data.defaultAddressIds[data.userIndex(random)] + "/set-default", null)),
+                write("DELETE /address/{id}", 1, (client, data, random) -> consume(data.createdAddresses, id ->
+                        client.send("DELETE", "/address/" + id, null))),
+
+                // UserController
+                read("GET /user", 3, (client, data, random) -> client.get("/user?size=50")),
+                read("GET /user?includeAddresses", 2, (client, data, random) -> client.get("/user?size=50&includeAddresses=true")),
+                read("GET /user/{id}/profile", 8, (client, data, random) ->
+                        client.get("/user/" + data.userIds[data.userIndex(random)] + "/profile")),
+                write("POST /user", 1, (client, data, random) -> {
+                    HttpResponse<String> response = client.send("POST", "/user", user(client, data));
+                    remember(client, response, data.createdUsers);
+                    return response;
+                }),
+                write("PUT /user/{id}", 1, (client, data, random) -> reuse(data.createdUsers, id ->
+                        client.send("PUT", "/user/" + id, user(client, data)))),
+                write("PATCH /user/{id}", 2, (client, data, random) -> reuse(data.createdUsers, id ->
+                        client.send("PATCH", "/user/" + id,
+                                client.objectMapper().createObjectNode().put("name", "Carga " + random.nextInt(1000))))),
+
+                // AuthController
+                write("POST /auth/login", 1, (client, data, random) -> client.send("POST", "/auth/login",
+                        client.objectMapper().createObjectNode()
+                                .put("userName", data.userNames[data.userIndex(random)])
+                                .put("password", LoadTestData.PASSWORD))),
+                write("POST /auth/register", 1, (client, data, random) -> client.send("POST", "/auth/register", user(client, data)))
+        );
+    }
+
+    private static ObjectNode product(LoadTestClient client, LoadTestData data, ThreadLocalRandom random) {
+        return client.objectMapper().createObjectNode()
+                .put("name", "Produto carga " + random.nextInt(100_000))
+                .put("description", "Criado pelo teste de carga")
+                .put("price", price(random))
+                .put("stock", 1000)
+                .put("category", data.category(random))
+                .put("brand", "Trajefino")
+                .put("barcode", "LT-" + data.nextKey());
+    }
+
+    private static ObjectNode address(LoadTestClient client, ThreadLocalRandom random) {
+        return client.objectMapper().createObjectNode()
+                .put("street", "Rua Carga")
+                .put("number", String.valueOf(random.nextInt(1, 2000)))
+                .put("neighborhood", "Centro")
+                .put("city", "São Paulo")
+                .put("state", "SP")
+                .put("zipCode", "01001-000")
+                .put("country", "Brasil")
+                .put("addressType", "SHIPPING")
+                .put("isDefault", false);
+    }
+
+    private static ObjectNode user(LoadTestClient client, LoadTestData data) {
+        String userName = "lt-" + data.nextKey();
+        return client.objectMapper().createObjectNode()
+                .put("userName", userName)
+                .put("name", "Carga")
+                .put("fullName", "Usuário " + userName)
+                .put("password", LoadTestData.PASSWORD)
+                .put("birthDate", "1990-01-01");
+    }
+
+    private static BigDecimal price(ThreadLocalRandom random) {
+        return BigDecimal.valueOf(random.nextInt(5_000, 200_000), 2);
+    }
+
+    private static void remember(LoadTestClient client, HttpResponse<String> response, Queue<Long> created) throws Exception {
+        if (response.statusCode() == 200) {
+            created.add(client.json(response).get("id").asLong());
+        }
+    }
+
+    // Usa um ID criado pela carga e o devolve à fila
+    private static HttpResponse<String> reuse(Queue<Long> created, IdCall call) throws Exception {
+        Long id = created.poll();
+        if (id == null) {
+            return null;
+        }
+        try {
+            return call.execute(id);
+        } finally {
+            created.add(id);
+        }
+    }
+
+    // Usa um ID criado pela carga e o descarta (exclusões)
+    private static HttpResponse<String> consume(Queue<Long> created, IdCall call) throws Exception {
+        Long id = created.poll();
+        return id == null ? null : call.execute(id);
+    }
+
+    @FunctionalInterface
+    private interface IdCall {
+        HttpResponse<String> execute(Long id) throws Exception;
+    }
+}
@@ -0,0 +1,38 @@
+package com.jeferson.trajefino.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Suporte aos caches Caffeine que carregam do banco. O Caffeine executa o loader síncrono dentro do
+ * ConcurrentHashMap.compute, que é synchronized: um JDBC ali prende a virtual thread ao carrier.
+ * Com buildAsync o compute só registra o future, e a consulta roda numa virtual thread própria.
+ */
+public final class CacheLoading {
+
+    private static final Executor VIRTUAL_THREADS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cache-loader-", 0).factory());
+    // O Caffeine submete a carga a partir da thread que sofreu o miss: a consulta conta para aquela requisição
+    private static final Executor LOADERS = task -> VIRTUAL_THREADS.execute(RequestStatistics.propagate(task));
+
+    private CacheLoading() {
+    }
+
+    public static Executor executor() {
+        return LOADERS;
+    }
+
+    // A exceção do loader chega embrulhada em CompletionException; devolve a original ao chamador
+    public static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
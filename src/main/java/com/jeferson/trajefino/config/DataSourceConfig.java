@@ -0,0 +1,73 @@
+package com.jeferson.trajefino.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Escritas e transações comuns usam o primário; transações @Transactional(readOnly = true) usam as
+ * réplicas de datasource.replica.urls. O LazyConnectionDataSourceProxy só pega a conexão física no
+ * primeiro comando SQL, quando já sabe se a transação é somente leitura. Sem réplicas tudo vai ao primário.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReadYourWrites readYourWrites,
+                                                             @Value("${datasource.replica.urls:}") String urls,
+                                                             @Value("${datasource.replica.username:}") String username,
+                                                             @Value("${datasource.replica.password:}") String password,
+                                                             @Value("${datasource.replica.pool-size:20}") int poolSize,
+                                                             @Value("${datasource.replica.max-lag:2s}") Duration maxLag) {
+        List<String> jdbcUrls = Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .toList();
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < jdbcUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(jdbcUrls.get(i));
+            replica.setUsername(StringUtils.hasText(username) ? username : primaryDataSource.getUsername());
+            replica.setPassword(StringUtils.hasText(password) ? password : primaryDataSource.getPassword());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Falha rápido para cair no primário e não impede a subida com a réplica fora do ar
+            replica.setConnectionTimeout(1000);
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, readYourWrites);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        if (replicaRoutingDataSource.hasReplicas()) {
+            dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,32 @@
+package com.jeferson.trajefino.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Força o primário para leituras que alimentam caches ou ETags: se lessem uma réplica atrasada,
+ * o dado velho ficaria guardado mesmo depois de a réplica alcançar o primário.
+ * Deve envolver a transação inteira, pois a conexão é escolhida no primeiro comando SQL.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.jeferson.trajefino.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Métricas além das autoconfiguradas pelo Actuator (HTTP, Hikari, JVM, estatísticas globais do Hibernate):
+ * liga os contadores de Hibernate por requisição. Tudo é exposto em /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestStatistics.Interceptor(meterRegistry));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, RequestStatistics.SessionListener.class.getName());
+            properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.<Integrator>of(new RequestStatistics.LoadCounter()));
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.jeferson.trajefino.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Transações readOnly que vão para uma réplica leem o cache de segundo nível, mas não gravam nele
+ * (CacheMode.GET): uma entidade lida numa réplica atrasada ficaria no cache depois de a réplica
+ * alcançar o primário. As cargas no primário continuam populando o cache normalmente.
+ */
+@Component
+public class ReplicaCacheMode implements TransactionExecutionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReplicaCacheMode(EntityManagerFactory entityManagerFactory, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isReadOnly() || !replicaRoutingDataSource.routesToReplica()) {
+            return;
+        }
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+}
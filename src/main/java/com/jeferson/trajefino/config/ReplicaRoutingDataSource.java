@@ -0,0 +1,155 @@
+package com.jeferson.trajefino.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Destino das transações readOnly: distribui as conexões entre as réplicas saudáveis em round-robin.
+ * Uma réplica fora do ar ou com atraso acima de maxLag sai da rotação até a próxima verificação;
+ * sem nenhuma réplica disponível (ou em leituras que exigem o primário) a conexão vem do primário.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+    private static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn()::text";
+
+    // Em dia só se o replay alcançou a posição atual do primário, mesmo que a última transação seja antiga.
+    // Atrasada e sem receptor de WAL conectado, a réplica não vai se atualizar: atraso nulo (infinito).
+    // Uma instância fora de recuperação (cópia independente, útil em testes locais) conta como atraso zero.
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()) <= 0 THEN 0
+                     WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver) THEN NULL
+                     ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+                   END""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    Duration maxLag, ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+        this.readYourWrites = readYourWrites;
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    // Se uma transação readOnly iniciada agora lê de uma réplica; mesma decisão de getConnection()
+    boolean routesToReplica() {
+        return hasReplicas() && !DataSourceRouting.isPrimaryRequired() && !readYourWrites.isPrimaryRequired();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routesToReplica()) {
+            return primary.getConnection();
+        }
+        int count = replicas.size();
+        int start = count == 0 ? 0 : Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.healthy = false;
+                log.warn("Réplica {} indisponível, retirada da rotação: {}", replica.dataSource.getPoolName(), e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        checkReplicas();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.health-check-interval:1s}")
+    public void checkReplicas() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        // Lida antes das réplicas: comparar com uma posição um pouco antiga só deixa a verificação mais branda
+        String primaryLsn = primaryLsn();
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            if (primaryLsn == null) {
+                replica.healthy = false;
+            } else {
+                try (Connection connection = replica.dataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+                    statement.setString(1, primaryLsn);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                        double lag = resultSet.getDouble(1);
+                        replica.lagSeconds = resultSet.wasNull() ? Double.POSITIVE_INFINITY : lag;
+                    }
+                    replica.healthy = replica.lagSeconds * 1000 <= maxLag.toMillis();
+                } catch (SQLException e) {
+                    replica.healthy = false;
+                }
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("Réplica {} {} (atraso {} s)", replica.dataSource.getPoolName(),
+                        replica.healthy ? "voltou à rotação" : "saiu da rotação", replica.lagSeconds);
+            }
+        }
+    }
+
+    // Sem a posição do primário não há como medir o atraso: as leituras ficam no primário
+    private String primaryLsn() {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        } catch (SQLException e) {
+            log.warn("Falha ao ler a posição do WAL no primário: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
@@ -0,0 +1,159 @@
+package com.jeferson.trajefino.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.SessionEventListener;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contadores do Hibernate por requisição: statements executados, entidades carregadas e flushes.
+ * Os contadores ficam em um ThreadLocal aberto pelo interceptor e publicados como distribuições
+ * por rota ao final. Subtarefas em outras threads (consultas em paralelo, cargas de cache) entram
+ * na conta quando submetidas via propagate.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger entityLoads = new AtomicInteger();
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    private RequestStatistics() {
+    }
+
+    // Leva os contadores da requisição atual para a thread que executar a tarefa
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return task;
+        }
+        return () -> {
+            CURRENT.set(statistics);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    public static Runnable propagate(Runnable task) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return task;
+        }
+        return () -> {
+            CURRENT.set(statistics);
+            try {
+                task.run();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    private static void increment(Increment increment) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            increment.apply(statistics);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Increment {
+        void apply(RequestStatistics statistics);
+    }
+
+    // Registrado por sessão via hibernate.session.events.auto (precisa de construtor público sem argumentos)
+    public static class SessionListener implements SessionEventListener {
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            increment(statistics -> statistics.statements.incrementAndGet());
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            increment(statistics -> statistics.statements.incrementAndGet());
+        }
+
+        @Override
+        public void flushEnd(int numberOfEntities, int numberOfCollections) {
+            increment(statistics -> statistics.flushes.incrementAndGet());
+        }
+    }
+
+    // Conta entidades hidratadas, inclusive as de coleções e proxies inicializados
+    static class LoadCounter implements Integrator, PostLoadEventListener {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry()
+                    .getService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, this);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            increment(statistics -> statistics.entityLoads.incrementAndGet());
+        }
+    }
+
+    static class Interceptor implements HandlerInterceptor {
+
+        private final MeterRegistry meterRegistry;
+
+        Interceptor(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            CURRENT.set(new RequestStatistics());
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+            RequestStatistics statistics = CURRENT.get();
+            CURRENT.remove();
+            if (statistics == null) {
+                return;
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            record("hibernate.request.statements", "Statements JDBC executados por requisição", request, uri, statistics.statements.get());
+            record("hibernate.request.entity.loads", "Entidades carregadas por requisição", request, uri, statistics.entityLoads.get());
+            record("hibernate.request.flushes", "Flushes da sessão por requisição", request, uri, statistics.flushes.get());
+        }
+
+        private void record(String name, String description, HttpServletRequest request, String uri, int value) {
+            DistributionSummary.builder(name)
+                    .description(description)
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(value);
+        }
+    }
+}
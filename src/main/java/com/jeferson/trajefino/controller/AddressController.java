@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,10 +29,21 @@ public class AddressController {
     @Operation(summary = "Listar endereços do usuário")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de endereços retornada"),
+            @ApiResponse(responseCode = "304", description = "Lista inalterada desde o ETag informado"),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     })
-    public ResponseEntity<List<Address>> getAddressesByUser(@PathVariable Long userId) {
-        return addressService.findAddressesByUserId(userId);
+    public ResponseEntity<List<Address>> getAddressesByUser(@PathVariable Long userId, WebRequest request) {
+        return addressService.findAddressesByUserId(userId, request);
+    }
+
+    @GetMapping("/user/{userId}/default")
+    @Operation(summary = "Buscar endereço padrão do usuário")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Endereço padrão retornado"),
+            @ApiResponse(responseCode = "404", description = "Nenhum endereço padrão encontrado")
+    })
+    public ResponseEntity<Address> getDefaultAddress(@PathVariable Long userId) {
+        return addressService.findDefaultAddress(userId);
     }
 
     @GetMapping("/{id}")
@@ -5,6 +5,7 @@ import com.jeferson.trajefino.model.dto.LoginRequest;
 import com.jeferson.trajefino.model.dto.Message;
 import com.jeferson.trajefino.model.User;
 import com.jeferson.trajefino.model.dto.UserDTO;
+import com.jeferson.trajefino.security.AuthThrottle;
 import com.jeferson.trajefino.security.JwtService;
 import com.jeferson.trajefino.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,13 +30,16 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserService userService;
+    private final AuthThrottle authThrottle;
 
     public AuthController(AuthenticationManager authenticationManager,
                           JwtService jwtService,
-                          UserService userService) {
+                          UserService userService,
+                          AuthThrottle authThrottle) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userService = userService;
+        this.authThrottle = authThrottle;
     }
 
     @PostMapping("/login")
@@ -42,6 +47,8 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login realizado com sucesso"),
             @ApiResponse(responseCode = "401", description = "Credenciais inválidas"),
+            @ApiResponse(responseCode = "429", description = "Muitas tentativas para o usuário ou IP"),
+            @ApiResponse(responseCode = "503", description = "Fila de verificação de senha cheia"),
             @ApiResponse(responseCode = "500", description = "Erro interno ao autenticar usuário",
                     content = @Content(
                             mediaType = "application/json",
@@ -49,7 +56,9 @@ public class AuthController {
                     )
             )
     })
-    public ResponseEntity<AuthResponse> login(@RequestBody @Valid LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@RequestBody @Valid LoginRequest request, HttpServletRequest httpRequest) {
+        authThrottle.check(request.getUserName(), httpRequest.getRemoteAddr());
+
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUserName(), request.getPassword())
         );
@@ -65,6 +74,8 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuário registrado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos ou username já existente"),
+            @ApiResponse(responseCode = "429", description = "Muitas tentativas para o IP"),
+            @ApiResponse(responseCode = "503", description = "Fila de hash de senha cheia"),
             @ApiResponse(responseCode = "500", description = "Erro interno ao registrar usuário",
                     content = @Content(
                             mediaType = "application/json",
@@ -72,7 +83,9 @@ public class AuthController {
                     )
             )
     })
-    public ResponseEntity<AuthResponse> register(@RequestBody @Valid UserDTO userDTO) throws Exception {
+    public ResponseEntity<AuthResponse> register(@RequestBody @Valid UserDTO userDTO, HttpServletRequest httpRequest) throws Exception {
+        authThrottle.check(null, httpRequest.getRemoteAddr());
+
         User user = userService.registerUser(userDTO);
         String token = jwtService.generateToken(user);
 
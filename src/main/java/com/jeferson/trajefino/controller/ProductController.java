@@ -1,20 +1,39 @@
 package com.jeferson.trajefino.controller;
 
 import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.BarcodeLookupResult;
+import com.jeferson.trajefino.model.dto.CursorPage;
+import com.jeferson.trajefino.model.dto.ProductBatchResult;
+import com.jeferson.trajefino.model.dto.ProductBatchUpdateItem;
+import com.jeferson.trajefino.model.dto.StockAdjustmentDTO;
+import com.jeferson.trajefino.model.dto.StockAdjustmentResult;
+import com.jeferson.trajefino.model.dto.ProductCacheStats;
 import com.jeferson.trajefino.model.dto.ProductDTO;
+import com.jeferson.trajefino.model.dto.ProductFacets;
+import com.jeferson.trajefino.model.dto.ProductQueryDTO;
 import com.jeferson.trajefino.model.dto.Message;
+import com.jeferson.trajefino.service.ProductBarcodeService;
+import com.jeferson.trajefino.service.ProductBatchService;
+import com.jeferson.trajefino.service.ProductQueryService;
 import com.jeferson.trajefino.service.ProductService;
+import com.jeferson.trajefino.service.ProductStockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -23,13 +42,25 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductBatchService productBatchService;
+    private final ProductStockService productStockService;
+    private final ProductQueryService productQueryService;
+    private final ProductBarcodeService productBarcodeService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductBatchService productBatchService,
+                             ProductStockService productStockService,
+                             ProductQueryService productQueryService,
+                             ProductBarcodeService productBarcodeService) {
         this.productService = productService;
+        this.productBatchService = productBatchService;
+        this.productStockService = productStockService;
+        this.productQueryService = productQueryService;
+        this.productBarcodeService = productBarcodeService;
     }
 
     @GetMapping
-    @Operation(summary = "Listar todos os produtos", description = "Retorna uma lista com todos os produtos cadastrados")
+    @Operation(summary = "Listar todos os produtos", description = "Retorna uma página de produtos cadastrados. Use o nextCursor retornado para buscar a próxima página")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso"),
             @ApiResponse(responseCode = "500", description = "Erro interno ao buscar produtos",
@@ -39,14 +70,21 @@ public class ProductController {
                     )
             )
     })
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return productService.findAllProducts();
+    public ResponseEntity<CursorPage<Product>> getAllProducts(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        return productService.findAllProducts(cursor, size);
     }
 
     @GetMapping("/active")
-    @Operation(summary = "Listar produtos ativos", description = "Retorna uma lista com todos os produtos ativos")
+    @Operation(summary = "Listar produtos ativos", description = "Retorna uma página de produtos ativos. Use o nextCursor retornado para buscar a próxima página")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de produtos ativos retornada com sucesso"),
+            @ApiResponse(responseCode = "200", description = "Lista de produtos ativos retornada com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "304", description = "Página inalterada desde o ETag informado"),
             @ApiResponse(responseCode = "500", description = "Erro interno ao buscar produtos",
                     content = @Content(
                             mediaType = "application/json",
@@ -54,14 +92,46 @@ public class ProductController {
                     )
             )
     })
-    public ResponseEntity<List<Product>> getActiveProducts() {
-        return productService.findActiveProducts();
+    public ResponseEntity<byte[]> getActiveProducts(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                    WebRequest request) throws IOException {
+        return productService.findActiveProducts(cursor, size, acceptEncoding, request);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Exportar catálogo", description = "Transmite todos os produtos em NDJSON (um produto JSON por linha), sem carregar o catálogo inteiro em memória")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação transmitida com sucesso"),
+            @ApiResponse(responseCode = "500", description = "Erro interno ao exportar produtos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public void exportProducts(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        productService.exportProducts(response.getOutputStream());
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Estatísticas do cache de produtos", description = "Retorna acertos, falhas, despejos e tamanho dos caches de produto por ID e por categoria")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado - Apenas ADMIN")
+    })
+    public ResponseEntity<ProductCacheStats> getCacheStats() {
+        return productService.getCacheStats();
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar produto por ID", description = "Retorna um produto específico pelo ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto encontrado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Produto inalterado desde o ETag informado"),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
             @ApiResponse(responseCode = "500", description = "Erro interno ao buscar produto",
                     content = @Content(
@@ -70,14 +140,40 @@ public class ProductController {
                     )
             )
     })
-    public ResponseEntity<Product> getProductById(@PathVariable(required = true) Long id) {
-        return productService.findProductById(id);
+    public ResponseEntity<Product> getProductById(@PathVariable(required = true) Long id, WebRequest request) {
+        return productService.findProductById(id, request);
+    }
+
+    @GetMapping("/barcode/{code}")
+    @Operation(summary = "Buscar produto por código de barras", description = "Retorna o produto com o código de barras informado, resolvido pelo índice em memória")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produto encontrado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Nenhum produto com este código de barras")
+    })
+    public ResponseEntity<Product> getProductByBarcode(@PathVariable String code) {
+        return productBarcodeService.findByBarcode(code);
+    }
+
+    @PostMapping("/barcode/lookup")
+    @Operation(summary = "Buscar produtos por códigos de barras em lote", description = "Recebe uma lista de códigos de barras e retorna os produtos encontrados, indexados pelo código, e os códigos sem produto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Busca concluída; ver produtos e códigos não encontrados"),
+            @ApiResponse(responseCode = "400", description = "Lista vazia ou acima do limite",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<BarcodeLookupResult> lookupBarcodes(@RequestBody List<String> barcodes) {
+        return productBarcodeService.lookup(barcodes);
     }
 
     @GetMapping("/category/{category}")
-    @Operation(summary = "Buscar produtos por categoria", description = "Retorna uma lista de produtos de uma categoria específica")
+    @Operation(summary = "Buscar produtos por categoria", description = "Retorna uma página de produtos de uma categoria específica")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Página inalterada desde o ETag informado"),
             @ApiResponse(responseCode = "500", description = "Erro interno ao buscar produtos",
                     content = @Content(
                             mediaType = "application/json",
@@ -85,12 +181,15 @@ public class ProductController {
                     )
             )
     })
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        return productService.findProductsByCategory(category);
+    public ResponseEntity<CursorPage<Product>> getProductsByCategory(@PathVariable String category,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     WebRequest request) {
+        return productService.findProductsByCategory(category, cursor, size, request);
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Buscar produtos por nome", description = "Retorna produtos que contenham o nome informado")
+    @Operation(summary = "Buscar produtos por nome", description = "Retorna até 100 produtos semelhantes ao texto informado (nome, marca e categoria), ordenados por relevância")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso"),
             @ApiResponse(responseCode = "500", description = "Erro interno ao buscar produtos",
@@ -104,6 +203,37 @@ public class ProductController {
         return productService.searchProductsByName(name);
     }
 
+    @GetMapping("/query")
+    @Operation(summary = "Consultar produtos com filtros combinados", description = "Combina categoria, marca, faixa de preço, faixa de estoque, status ativo e trecho do nome em uma única consulta, com ordenação (id, name, price ou stock, opcionalmente \",desc\") e paginação por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de produtos retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Ordenação, faixa ou cursor inválidos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<CursorPage<Product>> queryProducts(@ParameterObject ProductQueryDTO query) {
+        return productQueryService.query(query);
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Contagens por faceta", description = "Retorna quantos produtos há por categoria, marca, faixa de preço e status ativo, opcionalmente filtrando por texto de busca (q) e categoria")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Contagens retornadas com sucesso"),
+            @ApiResponse(responseCode = "503", description = "Facetas ainda em carregamento na inicialização",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<ProductFacets> getProductFacets(@RequestParam(required = false) String q,
+                                                          @RequestParam(required = false) String category) {
+        return productService.findFacets(q, category);
+    }
+
     @PostMapping
     @Operation(summary = "Criar novo produto", description = "Cadastra um novo produto no sistema")
     @ApiResponses(value = {
@@ -120,6 +250,73 @@ public class ProductController {
         return productService.createProduct(productDTO);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Criar produtos em lote", description = "Cadastra até 1000 produtos de uma vez e retorna o resultado de cada item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; ver o status de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite"),
+            @ApiResponse(responseCode = "500", description = "Erro interno ao criar produtos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<ProductBatchResult> createProducts(@RequestBody List<ProductDTO> productDTOs) {
+        return productBatchService.createProducts(productDTOs);
+    }
+
+    @PutMapping("/batch")
+    @Operation(summary = "Atualizar produtos em lote", description = "Atualiza por completo até 1000 produtos de uma vez e retorna o resultado de cada item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; ver o status de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite"),
+            @ApiResponse(responseCode = "500", description = "Erro interno ao atualizar produtos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<ProductBatchResult> updateProducts(@RequestBody List<ProductBatchUpdateItem> items) {
+        return productBatchService.updateProducts(items);
+    }
+
+    @PostMapping("/{id}/stock/adjust")
+    @Operation(summary = "Ajustar estoque", description = "Soma um delta (positivo ou negativo) ao estoque de forma atômica, sem permitir estoque negativo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estoque ajustado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Delta não informado"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Estoque insuficiente"),
+            @ApiResponse(responseCode = "500", description = "Erro interno ao ajustar estoque",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<StockAdjustmentResult> adjustStock(@PathVariable(required = true) Long id,
+                                                             @RequestBody StockAdjustmentDTO adjustmentDTO) {
+        return productStockService.adjustStock(id, adjustmentDTO);
+    }
+
+    @PostMapping("/stock/adjust")
+    @Operation(summary = "Ajustar estoque em lote", description = "Aplica até 1000 deltas de estoque em um único comando e retorna o novo estoque de cada produto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; ver applied de cada produto"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, acima do limite ou item sem productId/delta"),
+            @ApiResponse(responseCode = "500", description = "Erro interno ao ajustar estoque",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<List<StockAdjustmentResult>> adjustStocks(@RequestBody List<StockAdjustmentDTO> adjustments) {
+        return productStockService.adjustStocks(adjustments);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar produto completo", description = "Atualiza todos os dados de um produto existente")
     @ApiResponses(value = {
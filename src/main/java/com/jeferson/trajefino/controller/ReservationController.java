@@ -0,0 +1,66 @@
+package com.jeferson.trajefino.controller;
+
+import com.jeferson.trajefino.model.dto.Message;
+import com.jeferson.trajefino.model.dto.ReservationDTO;
+import com.jeferson.trajefino.model.dto.ReservationRequestDTO;
+import com.jeferson.trajefino.service.StockReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/reservation")
+@Tag(name = "Reservation", description = "API de reservas de estoque")
+public class ReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    public ReservationController(StockReservationService stockReservationService) {
+        this.stockReservationService = stockReservationService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Reservar estoque", description = "Reserva uma quantidade de um produto por um tempo limitado (TTL)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva criada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Estoque insuficiente ou produto inativo"),
+            @ApiResponse(responseCode = "500", description = "Erro interno ao reservar estoque",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<ReservationDTO> reserve(@RequestBody ReservationRequestDTO requestDTO) {
+        return stockReservationService.reserve(requestDTO);
+    }
+
+    @PostMapping("/{id}/confirm")
+    @Operation(summary = "Confirmar reserva", description = "Confirma a reserva e baixa o estoque do produto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva confirmada com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Reserva não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Reserva expirada")
+    })
+    public ResponseEntity<ReservationDTO> confirm(@PathVariable String id) {
+        return stockReservationService.confirm(id);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Liberar reserva", description = "Cancela a reserva e devolve a quantidade ao estoque disponível")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva liberada com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Reserva não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Reserva expirada")
+    })
+    public ResponseEntity<ReservationDTO> release(@PathVariable String id) {
+        return stockReservationService.release(id);
+    }
+}
@@ -2,7 +2,11 @@ package com.jeferson.trajefino.controller;
 
 import com.jeferson.trajefino.model.dto.Message;
 import com.jeferson.trajefino.model.User;
+import com.jeferson.trajefino.model.dto.CursorPage;
 import com.jeferson.trajefino.model.dto.UserDTO;
+import com.jeferson.trajefino.model.dto.UserProfileDTO;
+import com.jeferson.trajefino.model.dto.UserSummaryDTO;
+import com.jeferson.trajefino.service.UserProfileService;
 import com.jeferson.trajefino.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,22 +19,22 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/user")
 @Tag(name = "User", description = "API de gerenciamento de usuários")
 public class UserController {
 
     private final UserService userService;
+    private final UserProfileService userProfileService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserProfileService userProfileService) {
         this.userService = userService;
+        this.userProfileService = userProfileService;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERATOR')")
-    @Operation(summary = "Listar todos os usuários", description = "Retorna uma lista com todos os usuários cadastrados no sistema")
+    @Operation(summary = "Listar todos os usuários", description = "Retorna uma página de usuários cadastrados no sistema. Use o nextCursor retornado para buscar a próxima página e includeAddresses=true para incluir os endereços")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de usuários retornada com sucesso"),
             @ApiResponse(responseCode = "403", description = "Acesso negado - Apenas ADMIN e OPERATOR"),
@@ -41,8 +45,28 @@ public class UserController {
                     )
             )
     })
-    public ResponseEntity<List<User>> findAllUsers() {
-        return userService.findAllUsers();
+    public ResponseEntity<CursorPage<UserSummaryDTO>> findAllUsers(@RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size,
+                                                                   @RequestParam(defaultValue = "false") boolean includeAddresses) {
+        return userService.findAllUsers(cursor, size, includeAddresses);
+    }
+
+    @GetMapping("/{id}/profile")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERATOR')")
+    @Operation(summary = "Buscar perfil do usuário", description = "Retorna em um único documento o usuário, seus endereços e o endereço padrão")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Perfil retornado com sucesso"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado - Apenas ADMIN e OPERATOR"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "503", description = "Tempo esgotado ao montar o perfil",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Message.class)
+                    )
+            )
+    })
+    public ResponseEntity<UserProfileDTO> getUserProfile(@PathVariable Long id) {
+        return userProfileService.findProfile(id);
     }
 
     @PostMapping
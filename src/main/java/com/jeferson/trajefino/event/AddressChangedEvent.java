@@ -0,0 +1,5 @@
+package com.jeferson.trajefino.event;
+
+// Publicado a cada escrita de endereço, identificando o usuário dono da lista alterada
+public record AddressChangedEvent(Long userId) {
+}
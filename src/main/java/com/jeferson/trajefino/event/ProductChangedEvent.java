@@ -0,0 +1,16 @@
+package com.jeferson.trajefino.event;
+
+import com.jeferson.trajefino.model.Product;
+
+// Publicado pelo ProductService a cada escrita.
+// previous é o estado antes da escrita (null na criação) e product o estado final (null na remoção)
+public record ProductChangedEvent(Long productId, Product previous, Product product) {
+
+    public boolean isCreated() {
+        return previous == null;
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.jeferson.trajefino.event;
+
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+
+import java.util.List;
+
+// Publicado após ajustes atômicos de estoque, que não passam pela entidade
+public record ProductStockChangedEvent(List<AdjustedStock> adjusted) {
+}
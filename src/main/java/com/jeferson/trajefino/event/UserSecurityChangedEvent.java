@@ -0,0 +1,5 @@
+package com.jeferson.trajefino.event;
+
+// Publicado quando senha, papel ou status de um usuário mudam, invalidando os tokens já emitidos
+public record UserSecurityChangedEvent(Long userId) {
+}
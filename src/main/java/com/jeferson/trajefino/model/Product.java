@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,14 +14,17 @@ import java.time.LocalDateTime;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity
 @Table(name = "product", schema = "trajefino")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product {
 
+    // Sequence com otimizador pooled: os IDs são reservados em blocos, o que permite inserts em lote
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", schema = "trajefino", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false, length = 200)
@@ -31,7 +36,9 @@ public class Product {
     @Column(name = "price", nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
-    @Column(name = "stock", nullable = false)
+    // Fora do UPDATE da entidade: editar o produto não regrava o stock lido no carregamento por cima
+    // de um "stock = stock + delta" concorrente. Mudanças explícitas passam por ProductStockRepository
+    @Column(name = "stock", nullable = false, updatable = false)
     private Integer stock;
 
     @Column(name = "category", length = 100)
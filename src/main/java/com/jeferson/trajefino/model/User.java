@@ -1,5 +1,6 @@
 package com.jeferson.trajefino.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.jeferson.trajefino.model.enums.UserRole;
 import jakarta.persistence.*;
@@ -7,6 +8,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,6 +25,7 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "user", schema = "trajefino")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User implements UserDetails {
 
     @Id
@@ -35,6 +39,7 @@ public class User implements UserDetails {
     @Column(name = "user_name", unique = true, nullable = false)
     private String userName;
 
+    @JsonIgnore
     @Column(name = "password", nullable = false)
     private String password;
 
@@ -55,7 +60,14 @@ public class User implements UserDetails {
     @Column(name = "enabled")
     private boolean enabled;
 
+    // Incrementada quando senha, papel ou status mudam; tokens com versão anterior deixam de valer
+    @JsonIgnore
+    @Column(name = "security_version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private long securityVersion;
+
+    // Só os IDs ficam na região; os endereços vêm da região address
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-addresses")
     @JsonManagedReference
     private final List<Address> addresses = new ArrayList<>();
 
@@ -0,0 +1,16 @@
+package com.jeferson.trajefino.model.dto;
+
+// Projeção de leitura do endereço, carregada em lote junto com a listagem de usuários
+public record AddressSummaryDTO(Long id,
+                                Long userId,
+                                String street,
+                                String number,
+                                String complement,
+                                String neighborhood,
+                                String city,
+                                String state,
+                                String zipCode,
+                                String country,
+                                String addressType,
+                                Boolean isDefault) {
+}
@@ -0,0 +1,5 @@
+package com.jeferson.trajefino.model.dto;
+
+// Linha devolvida pelo UPDATE ... RETURNING do ajuste de estoque (ou pela leitura do estoque atual)
+public record AdjustedStock(Long productId, int stock, String category, boolean active) {
+}
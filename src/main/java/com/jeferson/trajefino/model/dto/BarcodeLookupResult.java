@@ -0,0 +1,10 @@
+package com.jeferson.trajefino.model.dto;
+
+import com.jeferson.trajefino.model.Product;
+
+import java.util.List;
+import java.util.Map;
+
+// Resultado da busca em lote: produtos encontrados por código e códigos sem produto
+public record BarcodeLookupResult(Map<String, Product> products, List<String> notFound) {
+}
@@ -0,0 +1,22 @@
+package com.jeferson.trajefino.model.dto;
+
+import com.jeferson.trajefino.model.enums.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchItemResult {
+
+    private int index; // Posição do item na requisição
+
+    private Long id;
+
+    private BatchItemStatus status;
+
+    private String message;
+}
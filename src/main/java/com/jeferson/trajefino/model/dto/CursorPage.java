@@ -0,0 +1,23 @@
+package com.jeferson.trajefino.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String nextCursor; // Token opaco para buscar a próxima página
+}
@@ -0,0 +1,5 @@
+package com.jeferson.trajefino.model.dto;
+
+// Projeção (id, código de barras) usada nas checagens de unicidade em lote
+public record ProductBarcode(Long id, String barcode) {
+}
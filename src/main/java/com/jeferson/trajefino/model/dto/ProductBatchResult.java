@@ -0,0 +1,34 @@
+package com.jeferson.trajefino.model.dto;
+
+import com.jeferson.trajefino.model.enums.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductBatchResult {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<BatchItemResult> items;
+
+    public static ProductBatchResult of(List<BatchItemResult> items) {
+        int failed = (int) items.stream().filter(item -> item.getStatus() == BatchItemStatus.FAILED).count();
+        return ProductBatchResult.builder()
+                .total(items.size())
+                .succeeded(items.size() - failed)
+                .failed(failed)
+                .items(items)
+                .build();
+    }
+}
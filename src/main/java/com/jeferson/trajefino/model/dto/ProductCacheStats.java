@@ -0,0 +1,30 @@
+package com.jeferson.trajefino.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductCacheStats {
+
+    private Region byId;
+
+    private Region byCategory;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Region {
+        private long size;
+        private long hitCount;
+        private long missCount;
+        private double hitRate;
+        private long evictionCount;
+        private long loadFailureCount;
+    }
+}
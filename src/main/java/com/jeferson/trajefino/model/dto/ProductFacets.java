@@ -0,0 +1,11 @@
+package com.jeferson.trajefino.model.dto;
+
+import java.util.Map;
+
+// Contagem de produtos por valor de cada faceta; total é o número de produtos considerados
+public record ProductFacets(long total,
+                            Map<String, Long> category,
+                            Map<String, Long> brand,
+                            Map<String, Long> priceBand,
+                            Map<String, Long> active) {
+}
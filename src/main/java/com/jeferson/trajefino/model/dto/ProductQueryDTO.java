@@ -0,0 +1,38 @@
+package com.jeferson.trajefino.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Filtros de GET /product/query; campos nulos ou vazios não entram na consulta
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductQueryDTO {
+
+    private String category;
+
+    private String brand;
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+
+    private Integer minStock;
+
+    private Integer maxStock;
+
+    private Boolean active;
+
+    private String name; // Trecho do nome, sem diferenciar maiúsculas
+
+    private String sort; // id, name, price ou stock, opcionalmente com ",desc" (padrão: id)
+
+    private String cursor;
+
+    private Integer size;
+}
@@ -0,0 +1,26 @@
+package com.jeferson.trajefino.model.dto;
+
+import com.jeferson.trajefino.model.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationDTO {
+
+    private String id;
+
+    private Long productId;
+
+    private Integer quantity;
+
+    private ReservationStatus status;
+
+    private LocalDateTime expiresAt;
+}
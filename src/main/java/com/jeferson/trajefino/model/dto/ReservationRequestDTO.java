@@ -0,0 +1,19 @@
+package com.jeferson.trajefino.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationRequestDTO {
+
+    private Long productId;
+
+    private Integer quantity;
+
+    private Long ttlSeconds; // Opcional, usa o padrão configurado
+}
@@ -0,0 +1,17 @@
+package com.jeferson.trajefino.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockAdjustmentDTO {
+
+    private Long productId; // Usado apenas no ajuste em lote
+
+    private Integer delta; // Positivo para entrada, negativo para saída
+}
@@ -0,0 +1,23 @@
+package com.jeferson.trajefino.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockAdjustmentResult {
+
+    private Long productId;
+
+    private Integer delta;
+
+    private Integer stock; // Estoque após o ajuste; null quando não aplicado
+
+    private boolean applied;
+
+    private String message;
+}
@@ -0,0 +1,9 @@
+package com.jeferson.trajefino.model.dto;
+
+import java.util.List;
+
+// Documento único com o usuário, seus endereços e o endereço padrão
+public record UserProfileDTO(UserSummaryDTO user,
+                             List<AddressSummaryDTO> addresses,
+                             AddressSummaryDTO defaultAddress) {
+}
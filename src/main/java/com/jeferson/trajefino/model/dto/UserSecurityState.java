@@ -0,0 +1,5 @@
+package com.jeferson.trajefino.model.dto;
+
+// Estado mínimo do usuário necessário para aceitar um token: versão de segurança e se está habilitado
+public record UserSecurityState(long securityVersion, boolean enabled) {
+}
@@ -0,0 +1,30 @@
+package com.jeferson.trajefino.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.jeferson.trajefino.model.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Projeção de leitura do usuário: nunca carrega a senha nem a coleção de endereços da entidade
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserSummaryDTO(long id,
+                             String userName,
+                             String name,
+                             String fullName,
+                             String birthDate,
+                             UserRole role,
+                             LocalDateTime createdAt,
+                             boolean enabled,
+                             List<AddressSummaryDTO> addresses) {
+
+    // Usado pela consulta JPQL; os endereços são anexados depois, quando solicitados
+    public UserSummaryDTO(long id, String userName, String name, String fullName, String birthDate,
+                          UserRole role, LocalDateTime createdAt, boolean enabled) {
+        this(id, userName, name, fullName, birthDate, role, createdAt, enabled, null);
+    }
+
+    public UserSummaryDTO withAddresses(List<AddressSummaryDTO> addresses) {
+        return new UserSummaryDTO(id, userName, name, fullName, birthDate, role, createdAt, enabled, addresses);
+    }
+}
@@ -0,0 +1,7 @@
+package com.jeferson.trajefino.model.enums;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    FAILED
+}
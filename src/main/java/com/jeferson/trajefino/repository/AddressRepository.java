@@ -1,9 +1,13 @@
 package com.jeferson.trajefino.repository;
 
 import com.jeferson.trajefino.model.Address;
+import com.jeferson.trajefino.model.dto.AddressSummaryDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +21,18 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
     List<Address> findByUserIdAndAddressType(Long userId, String addressType);
 
     boolean existsByUserIdAndIsDefaultTrue(Long userId);
+
+    @Query("select new com.jeferson.trajefino.model.dto.AddressSummaryDTO(a.id, a.user.id, a.street, a.number, a.complement, " +
+            "a.neighborhood, a.city, a.state, a.zipCode, a.country, a.addressType, a.isDefault) " +
+            "from Address a where a.user.id in :userIds order by a.user.id, a.id")
+    List<AddressSummaryDTO> findSummariesByUserIdIn(Collection<Long> userIds);
+
+    // Um único UPDATE, apoiado pelo índice único parcial ux_address_user_default (user_id) WHERE is_default
+    @Modifying(flushAutomatically = true)
+    @Query("update Address a set a.isDefault = false where a.user.id = :userId and a.isDefault = true")
+    int clearDefault(Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Address a set a.isDefault = false where a.user.id = :userId and a.isDefault = true and a.id <> :addressId")
+    int clearDefaultExcept(Long userId, Long addressId);
 }
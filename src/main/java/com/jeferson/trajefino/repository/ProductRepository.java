@@ -1,22 +1,74 @@
 package com.jeferson.trajefino.repository;
 
 import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.ProductBarcode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Consultas cacheáveis guardam só os IDs; as entidades vêm da região product.
+    // Chamadores devem executá-las no primário (DataSourceRouting.onPrimary) para não cachear uma réplica atrasada
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-queries")
+    })
     Optional<Product> findByBarcode(String barcode);
 
     boolean existsByBarcode(String barcode);
 
+    @Query("select new com.jeferson.trajefino.model.dto.ProductBarcode(p.id, p.barcode) from Product p where p.barcode in :barcodes")
+    List<ProductBarcode> findBarcodeOwners(Collection<String> barcodes);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-queries")
+    })
     List<Product> findByCategory(String category);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-queries")
+    })
     List<Product> findByActiveTrue();
 
+    // lower() explícito para usar o índice trigram ix_product_name_trgm (o derivado IgnoreCase gera upper())
+    @Query("select p from Product p where lower(p.name) like lower(concat('%', ?#{escape([0])}, '%')) escape ?#{escapeCharacter()}")
     List<Product> findByNameContainingIgnoreCase(String name);
+
+    Slice<Product> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-queries")
+    })
+    Slice<Product> findByActiveTrueAndIdGreaterThan(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-queries")
+    })
+    Slice<Product> findByCategoryAndIdGreaterThan(String category, Long id, Pageable pageable);
+
+    // Cursor JDBC com fetch size: o PostgreSQL entrega as linhas em lotes em vez de materializar a tabela inteira
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            // Varredura completa: não inunda o cache de segundo nível
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllOrderById();
 }
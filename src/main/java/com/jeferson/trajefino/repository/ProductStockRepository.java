@@ -0,0 +1,108 @@
+package com.jeferson.trajefino.repository;
+
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class ProductStockRepository {
+
+    // Um único UPDATE condicional para todos os itens: sem leitura prévia, sem estoque negativo e
+    // sem estourar o INTEGER da coluna (a soma é feita em bigint)
+    private static final String ADJUST_SQL = """
+            UPDATE trajefino.product p
+               SET stock = p.stock + d.delta,
+                   updated_at = LOCALTIMESTAMP
+              FROM unnest(?::bigint[], ?::integer[]) AS d(id, delta)
+             WHERE p.id = d.id
+               AND p.stock::bigint + d.delta BETWEEN 0 AND 2147483647
+            RETURNING p.id, p.stock, p.category, p.active
+            """;
+
+    // Valor absoluto informado na edição do produto; a coluna não faz parte do UPDATE da entidade
+    private static final String SET_STOCK_SQL = """
+            UPDATE trajefino.product p
+               SET stock = d.stock
+              FROM unnest(?::bigint[], ?::integer[]) AS d(id, stock)
+             WHERE p.id = d.id
+            """;
+
+    private static final String CURRENT_STOCK_SQL =
+            "SELECT id, stock, category, active FROM trajefino.product WHERE id = ANY (?::bigint[])";
+
+    private static final String FLUSH_APPLIED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM trajefino.stock_flush_log WHERE batch_id = ?)";
+
+    private static final String RECORD_FLUSH_SQL =
+            "INSERT INTO trajefino.stock_flush_log (batch_id) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ProductStockRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Retorna apenas os produtos em que o ajuste foi aplicado. O UPDATE é JDBC puro: as entradas de
+     * segundo nível desses produtos são removidas aqui, ainda antes do commit, e de novo depois dele
+     * pelo ProductCache, para que nenhuma carga feita no meio continue servindo o estoque antigo.
+     */
+    public List<AdjustedStock> adjust(Map<Long, Integer> deltas) {
+        Long[] ids = deltas.keySet().toArray(new Long[0]);
+        Integer[] values = deltas.values().toArray(new Integer[0]);
+        List<AdjustedStock> adjusted = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ADJUST_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("integer", values));
+            return statement;
+        }, (rs, rowNum) -> new AdjustedStock(rs.getLong(1), rs.getInt(2), rs.getString(3), rs.getBoolean(4)));
+        adjusted.forEach(stock -> entityManagerFactory.getCache().evict(Product.class, stock.productId()));
+        return adjusted;
+    }
+
+    /**
+     * Grava o estoque informado numa edição do produto. A entidade gerenciada já carrega o mesmo valor,
+     * então a entrada de segundo nível gravada no flush continua correta.
+     */
+    public void setStocks(Map<Long, Integer> stocks) {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        Long[] ids = stocks.keySet().toArray(new Long[0]);
+        Integer[] values = stocks.values().toArray(new Integer[0]);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SET_STOCK_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("integer", values));
+            return statement;
+        });
+    }
+
+    // Estoque atual no banco, para realinhar contadores de itens que o UPDATE não devolveu
+    public List<AdjustedStock> findStocks(Collection<Long> productIds) {
+        Long[] ids = productIds.toArray(new Long[0]);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CURRENT_STOCK_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        }, (rs, rowNum) -> new AdjustedStock(rs.getLong(1), rs.getInt(2), rs.getString(3), rs.getBoolean(4)));
+    }
+
+    // Lotes do write-behind de reservas já aplicados, para a recuperação não aplicar duas vezes
+    public boolean isFlushApplied(String batchId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(FLUSH_APPLIED_SQL, Boolean.class, batchId));
+    }
+
+    public void recordFlush(String batchId) {
+        jdbcTemplate.update(RECORD_FLUSH_SQL, batchId);
+    }
+}
@@ -1,11 +1,35 @@
 package com.jeferson.trajefino.repository;
 
 import com.jeferson.trajefino.model.User;
+import com.jeferson.trajefino.model.dto.UserSecurityState;
+import com.jeferson.trajefino.model.dto.UserSummaryDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // O resultado (ID) fica na região user-queries e o usuário na região user
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")
+    })
     Optional<User> findByUserName(String userName);
     boolean existsByUserName(String userName);
+
+    @Query("select new com.jeferson.trajefino.model.dto.UserSummaryDTO(u.id, u.userName, u.name, u.fullName, u.birthDate, u.role, u.createdAt, u.enabled) " +
+            "from User u where u.id > :afterId order by u.id")
+    Slice<UserSummaryDTO> findSummariesAfter(long afterId, Pageable pageable);
+
+    @Query("select new com.jeferson.trajefino.model.dto.UserSummaryDTO(u.id, u.userName, u.name, u.fullName, u.birthDate, u.role, u.createdAt, u.enabled) " +
+            "from User u where u.id = :id")
+    Optional<UserSummaryDTO> findSummaryById(long id);
+
+    @Query("select new com.jeferson.trajefino.model.dto.UserSecurityState(u.securityVersion, u.enabled) from User u where u.id = :id")
+    Optional<UserSecurityState> findSecurityStateById(Long id);
 }
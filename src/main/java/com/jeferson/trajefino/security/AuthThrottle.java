@@ -0,0 +1,83 @@
+package com.jeferson.trajefino.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jeferson.trajefino.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita tentativas em /auth com token buckets por username e por IP,
+ * antes de qualquer consulta ao banco ou cálculo de BCrypt.
+ */
+@Component
+public class AuthThrottle {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final int usernameCapacity;
+    private final Duration usernameRefill;
+    private final int ipCapacity;
+    private final Duration ipRefill;
+
+    public AuthThrottle(@Value("${auth.throttle.username.capacity:10}") int usernameCapacity,
+                        @Value("${auth.throttle.username.refill-period:6s}") Duration usernameRefill,
+                        @Value("${auth.throttle.ip.capacity:30}") int ipCapacity,
+                        @Value("${auth.throttle.ip.refill-period:2s}") Duration ipRefill,
+                        @Value("${auth.throttle.maximum-size:100000}") long maximumSize) {
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefill = usernameRefill;
+        this.ipCapacity = ipCapacity;
+        this.ipRefill = ipRefill;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+    }
+
+    public void check(String userName, String clientIp) {
+        consume("ip:" + clientIp, ipCapacity, ipRefill);
+        if (userName != null) {
+            consume("user:" + userName.toLowerCase(Locale.ROOT), usernameCapacity, usernameRefill);
+        }
+    }
+
+    private void consume(String key, int capacity, Duration refillPeriod) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, refillPeriod.toNanos()));
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new TooManyRequestsException("Muitas tentativas de autenticação, tente novamente mais tarde", retryAfter);
+        }
+    }
+
+    // Um token é reposto a cada refillNanos, até o limite de capacity
+    static final class TokenBucket {
+        private final int capacity;
+        private final long refillNanos;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, long refillNanos) {
+            this.capacity = capacity;
+            this.refillNanos = refillNanos;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        // Retorna 0 se consumiu um token ou quantos nanos faltam para o próximo
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / refillNanos);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) ((1 - tokens) * refillNanos);
+        }
+    }
+}
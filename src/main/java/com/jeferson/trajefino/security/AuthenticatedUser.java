@@ -0,0 +1,23 @@
+package com.jeferson.trajefino.security;
+
+import com.jeferson.trajefino.model.enums.UserRole;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+// Principal montado a partir das claims do JWT, sem consulta ao banco
+public record AuthenticatedUser(Long id, String userName, UserRole role, long securityVersion)
+        implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return userName;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.getRole()));
+    }
+}
@@ -1,5 +1,7 @@
 package com.jeferson.trajefino.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,10 +21,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final PrincipalVersionCache principalVersionCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   PrincipalVersionCache principalVersionCache) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalVersionCache = principalVersionCache;
     }
 
     @Override
@@ -39,21 +45,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userName = jwtService.extractUsername(jwt);
+
+        // Assinatura e expiração são verificadas uma única vez por token
+        final Claims claims;
+        try {
+            claims = jwtService.verifyToken(jwt);
+        } catch (JwtException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        userName = claims.getSubject();
 
         if (userName != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userName);
-
-            if (jwtService.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
+            UsernamePasswordAuthenticationToken authToken = authenticate(claims, userName);
+            if (authToken != null) {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UsernamePasswordAuthenticationToken authenticate(Claims claims, String userName) {
+        AuthenticatedUser principal = jwtService.toPrincipal(claims);
+        if (principal != null) {
+            // Papel e ID vêm do token; o banco só é consultado se a versão do usuário não estiver em cache
+            if (!principalVersionCache.isCurrent(principal)) {
+                return null;
+            }
+            return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        }
+
+        // Tokens emitidos antes das claims de usuário: carrega o usuário do banco
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userName);
+        if (!userName.equals(userDetails.getUsername())) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+}
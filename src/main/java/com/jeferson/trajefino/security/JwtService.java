@@ -1,28 +1,72 @@
 package com.jeferson.trajefino.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jeferson.trajefino.model.User;
+import com.jeferson.trajefino.model.enums.UserRole;
 import org.springframework.stereotype.Service;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
-    @Value("${jwt.secret}")
-    private String secret;
 
-    @Value("${jwt.expiration}") // 24 horas em milissegundos
-    private Long expiration;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_SECURITY_VERSION = "sv";
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final Long expiration; // 24 horas em milissegundos
+
+    // Chave e parser são imutáveis e thread-safe: montados uma única vez
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // Claims de tokens já verificados, indexados pelo SHA-256 do token e expirados junto com ele
+    private final Cache<String, Claims> verifiedTokens;
+
+    // Tempo de verificação por resultado: cache, assinatura verificada ou token rejeitado
+    private final Timer cachedVerifications;
+    private final Timer signatureVerifications;
+    private final Timer rejectedVerifications;
+
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.expiration}") Long expiration,
+                      @Value("${jwt.cache.maximum-size:10000}") long cacheMaximumSize,
+                      MeterRegistry meterRegistry) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+        this.cachedVerifications = verificationTimer(meterRegistry, "cached");
+        this.signatureVerifications = verificationTimer(meterRegistry, "verified");
+        this.rejectedVerifications = verificationTimer(meterRegistry, "rejected");
     }
 
     public String extractUsername(String token) {
@@ -34,39 +78,111 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifica assinatura e expiração do token e devolve suas claims.
+     * Tokens já verificados são servidos do cache sem nova checagem de assinatura.
+     *
+     * @throws JwtException se o token for inválido ou estiver expirado
+     */
+    public Claims verifyToken(String token) {
+        long start = System.nanoTime();
+        String key = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims != null) {
+            cachedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        }
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException e) {
+            rejectedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, claims);
+        }
+        signatureVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, (user.getRole() != null ? user.getRole() : UserRole.ROLE_CUSTOMER).name());
+            claims.put(CLAIM_SECURITY_VERSION, user.getSecurityVersion());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
+    // Monta o principal a partir das claims; null para tokens emitidos sem as claims de usuário
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number securityVersion = claims.get(CLAIM_SECURITY_VERSION, Number.class);
+        if (userId == null || role == null || securityVersion == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), UserRole.valueOf(role),
+                securityVersion.longValue());
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = verifyToken(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verification")
+                .description("Tempo de verificação de tokens JWT")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    // A entrada vive apenas até o exp do próprio token
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,53 @@
+package com.jeferson.trajefino.security;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jeferson.trajefino.config.CacheLoading;
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.event.UserSecurityChangedEvent;
+import com.jeferson.trajefino.model.dto.UserSecurityState;
+import com.jeferson.trajefino.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Guarda a versão de segurança atual de cada usuário. O banco só é consultado quando a entrada
+ * não está no cache, ou seja, após uma mudança de senha, papel ou status (ou após o TTL,
+ * que limita a defasagem entre instâncias).
+ */
+@Component
+public class PrincipalVersionCache {
+
+    private final UserRepository userRepository;
+    // Assíncrono: a consulta de um miss roda fora do lock do Caffeine, ver CacheLoading
+    private final AsyncLoadingCache<Long, UserSecurityState> states;
+
+    public PrincipalVersionCache(UserRepository userRepository,
+                                 @Value("${jwt.principal-cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${jwt.principal-cache.expire-after-write:5m}") Duration expireAfterWrite,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.states = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(CacheLoading.executor())
+                .recordStats()
+                .buildAsync(id -> DataSourceRouting.onPrimary(() -> userRepository.findSecurityStateById(id).orElse(null)));
+        CaffeineCacheMetrics.monitor(meterRegistry, states, "jwt.principal-versions");
+    }
+
+    public boolean isCurrent(AuthenticatedUser principal) {
+        UserSecurityState state = CacheLoading.join(states.get(principal.id()));
+        return state != null && state.enabled() && state.securityVersion() == principal.securityVersion();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        states.synchronous().invalidate(event.userId());
+    }
+}
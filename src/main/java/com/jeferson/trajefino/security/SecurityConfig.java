@@ -1,5 +1,6 @@
 package com.jeferson.trajefino.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,6 +17,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -29,6 +31,7 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     private static final String[] PUBLIC_ENDPOINTS = {
             "/auth/**",
@@ -41,9 +44,16 @@ public class SecurityConfig {
             "/actuator/info"
     };
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, UserDetailsService userDetailsService) {
+    private final int managementPort;
+
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter,
+                          UserDetailsService userDetailsService,
+                          PasswordHashingExecutor passwordHashingExecutor,
+                          @Value("${management.server.port:-1}") int managementPort) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.userDetailsService = userDetailsService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.managementPort = managementPort;
     }
 
     @Bean
@@ -53,6 +63,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(PUBLIC_ENDPOINTS)
                         .permitAll()
+                        .requestMatchers(prometheusOnManagementPort())
+                        .permitAll()
                         .anyRequest()
                         .authenticated()
                 )
@@ -65,9 +77,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // O scraper só entra sem token pela porta de gerenciamento, que não é publicada junto com a API
+    private RequestMatcher prometheusOnManagementPort() {
+        return request -> managementPort > 0
+                && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // BCrypt roda no pool limitado de hashing, nunca direto na thread da requisição
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
     }
 
     @Bean
@@ -0,0 +1,340 @@
+package com.jeferson.trajefino.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.event.ProductStockChangedEvent;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+import com.jeferson.trajefino.model.dto.CursorPage;
+import com.jeferson.trajefino.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot imutável de GET /product/active no tamanho de página padrão, já serializado em JSON
+ * nas variantes identity e gzip. As páginas seguem a cadeia de nextCursor a partir da primeira.
+ * <p>
+ * Escritas em produtos ativos marcam os IDs como pendentes; só a página que cobre um ID pendente
+ * consulta o banco. A próxima execução de {@link #refresh()} relê esses IDs, serializa de novo apenas
+ * as páginas cujo conteúdo mudou e troca o snapshot de uma vez. As páginas intactas mantêm os bytes,
+ * o ETag e o Last-Modified anteriores.
+ * <p>
+ * Os eventos só cobrem escritas desta instância. Escritas feitas em outras instâncias aparecem pela
+ * releitura completa de {@link #reload()}, a cada {@code product.active-snapshot.reload-interval}.
+ */
+@Slf4j
+@Component
+public class ActiveProductSnapshot {
+
+    // lastId é o ID do último item (o próprio afterId se a página é vazia)
+    public record Page(byte[] identity, byte[] gzip, ChangeStamps.ChangeStamp stamp,
+                       long lastId, int size, boolean hasNext) {
+
+        // Serve o mesmo array compartilhado do snapshot, sem cópia nem nova serialização
+        public ResponseEntity<byte[]> toResponse(String acceptEncoding, WebRequest request) {
+            ResponseEntity<byte[]> notModified = ChangeStamps.notModified(request, stamp);
+            if (notModified != null) {
+                return notModified;
+            }
+            boolean useGzip = acceptsGzip(acceptEncoding);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .eTag(stamp.etag())
+                    .lastModified(stamp.lastModified());
+            if (useGzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(useGzip ? gzip : identity);
+        }
+
+        // A última página também cobre IDs que ainda podem entrar depois do último item
+        boolean covers(long afterId, long id) {
+            return id > afterId && (id <= lastId || !hasNext);
+        }
+    }
+
+    /**
+     * Aceita gzip se ele (ou {@code *}, na falta dele) aparece no Accept-Encoding com q maior que zero.
+     * {@code gzip;q=0} recusa explicitamente a codificação.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().toLowerCase();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0.0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = q;
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        Double q = gzip != null ? gzip : any;
+        return q != null && q > 0;
+    }
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    // Produtos ativos por ID; alterado apenas sob o lock, por load(), reload() e refresh()
+    private final TreeMap<Long, Product> active = new TreeMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // ID pendente -> sequência da última escrita, para não descartar uma escrita feita durante o refresh
+    private final ConcurrentNavigableMap<Long, Long> pending = new ConcurrentSkipListMap<>();
+    private final AtomicLong writes = new AtomicLong();
+    private long version;
+
+    // Páginas indexadas pelo afterId do cursor (0 para a primeira); null até a carga inicial
+    private volatile Map<Long, Page> pages;
+
+    public ActiveProductSnapshot(ProductRepository productRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    // Página do snapshot para o cursor, ou null se ele não é um limite de página ou há escrita pendente nela
+    public Page page(long afterId) {
+        Map<Long, Page> current = pages;
+        Page page = current == null ? null : current.get(afterId);
+        if (page == null) {
+            return null;
+        }
+        // Uma escrita antes do cursor não altera os próximos itens; depois da página, só a partir de lastId
+        Long next = pending.higherKey(afterId);
+        return next != null && page.covers(afterId, next) ? null : page;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            // Escritas que chegarem durante a carga ficam pendentes para o próximo refresh
+            pending.clear();
+            active.clear();
+            active.putAll(readActive());
+            publish(null);
+        } finally {
+            lock.unlock();
+        }
+        log.info("Snapshot de produtos ativos montado com {} produtos em {} ms",
+                active.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Relê todos os produtos e compara com o snapshot atual: só as páginas com algum produto diferente,
+     * novo ou removido são serializadas de novo. IDs pendentes continuam pendentes para o refresh.
+     */
+    @Transactional(readOnly = true)
+    @Scheduled(initialDelayString = "${product.active-snapshot.reload-interval:30s}",
+            fixedDelayString = "${product.active-snapshot.reload-interval:30s}")
+    public void reload() {
+        if (pages == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            Map<Long, Product> current = readActive();
+            Set<Long> changed = new HashSet<>();
+            active.forEach((id, product) -> {
+                if (!product.equals(current.get(id))) {
+                    changed.add(id);
+                }
+            });
+            current.keySet().stream().filter(id -> !active.containsKey(id)).forEach(changed::add);
+            if (changed.isEmpty()) {
+                return;
+            }
+            active.clear();
+            active.putAll(current);
+            publish(changed);
+            log.info("Snapshot de produtos ativos relido com {} produtos alterados", changed.size());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reler o snapshot de produtos ativos, nova tentativa no próximo ciclo", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.active-snapshot.refresh-interval:200ms}")
+    public void refresh() {
+        if (pages == null || pending.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            Map<Long, Long> applied = Map.copyOf(pending);
+            List<Product> fresh = DataSourceRouting.onPrimary(() -> productRepository.findAllById(applied.keySet()));
+            applied.keySet().forEach(active::remove);
+            for (Product product : fresh) {
+                if (Boolean.TRUE.equals(product.getActive())) {
+                    active.put(product.getId(), product);
+                }
+            }
+            publish(applied.keySet());
+            // Só agora o snapshot novo está visível; IDs escritos de novo no meio do caminho continuam pendentes
+            applied.forEach(pending::remove);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar o snapshot de produtos ativos, nova tentativa no próximo ciclo", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Só interessam escritas em produtos que estavam ou ficaram ativos
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        boolean wasActive = event.previous() != null && Boolean.TRUE.equals(event.previous().getActive());
+        boolean isActive = event.product() != null && Boolean.TRUE.equals(event.product().getActive());
+        if (wasActive || isActive) {
+            pending.put(event.productId(), writes.incrementAndGet());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        for (AdjustedStock stock : event.adjusted()) {
+            if (Boolean.TRUE.equals(stock.active())) {
+                pending.put(stock.productId(), writes.incrementAndGet());
+            }
+        }
+    }
+
+    // Produtos ativos no primário, desanexados do contexto de persistência
+    private Map<Long, Product> readActive() {
+        Map<Long, Product> current = new TreeMap<>();
+        try (Stream<Product> products = DataSourceRouting.onPrimary(productRepository::streamAllOrderById)) {
+            products.forEach(product -> {
+                if (Boolean.TRUE.equals(product.getActive())) {
+                    current.put(product.getId(), product);
+                }
+                entityManager.detach(product);
+            });
+        }
+        return current;
+    }
+
+    /**
+     * Remonta a cadeia de páginas e troca a referência; chamado com o lock adquirido. Uma página com os
+     * mesmos limites e sem nenhum dos IDs {@code changed} é reaproveitada sem serializar; com
+     * {@code changed} nulo (carga completa) todas são serializadas.
+     */
+    private void publish(Set<Long> changed) {
+        List<Product> products = new ArrayList<>(active.values());
+        Map<Long, Page> previous = pages != null ? pages : Map.of();
+        long snapshotVersion = ++version;
+        Map<Long, Page> built = new HashMap<>();
+
+        int offset = 0;
+        long afterId = 0L;
+        do {
+            int end = Math.min(offset + PageCursor.DEFAULT_SIZE, products.size());
+            List<Product> items = products.subList(offset, end);
+            boolean hasNext = end < products.size();
+            long lastId = items.isEmpty() ? afterId : items.get(items.size() - 1).getId();
+
+            Page old = previous.get(afterId);
+            if (changed != null && old != null && old.lastId() == lastId && old.size() == items.size()
+                    && old.hasNext() == hasNext && !touches(changed, afterId, old)) {
+                built.put(afterId, old);
+            } else {
+                CursorPage<Product> page = CursorPage.<Product>builder()
+                        .items(items)
+                        .size(items.size())
+                        .hasNext(hasNext)
+                        .nextCursor(hasNext ? PageCursor.encode(lastId) : null)
+                        .build();
+                ChangeStamps.ChangeStamp stamp = new ChangeStamps.ChangeStamp(
+                        "\"s-" + epoch + "-" + snapshotVersion + "-" + afterId + "\"",
+                        nextModified(old));
+                built.put(afterId, serialize(page, stamp, lastId));
+            }
+
+            afterId = lastId;
+            offset = end;
+        } while (offset < products.size());
+
+        pages = Map.copyOf(built);
+    }
+
+    private static boolean touches(Set<Long> changed, long afterId, Page page) {
+        for (Long id : changed) {
+            if (page.covers(afterId, id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Last-Modified estritamente crescente por página, mesmo com duas trocas no mesmo segundo
+    private static Instant nextModified(Page old) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        if (old == null || now.isAfter(old.stamp().lastModified())) {
+            return now;
+        }
+        return old.stamp().lastModified().plusSeconds(1);
+    }
+
+    private Page serialize(CursorPage<Product> page, ChangeStamps.ChangeStamp stamp, long lastId) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(page);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(identity.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(identity);
+            }
+            return new Page(identity, compressed.toByteArray(), stamp, lastId, page.getSize(), page.isHasNext());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao serializar o snapshot de produtos ativos", e);
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.jeferson.trajefino.service;
 
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.event.AddressChangedEvent;
 import com.jeferson.trajefino.exception.ResourceNotFoundException;
 import com.jeferson.trajefino.model.Address;
 import com.jeferson.trajefino.model.AddressDTO;
 import com.jeferson.trajefino.model.User;
 import com.jeferson.trajefino.repository.AddressRepository;
 import com.jeferson.trajefino.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,25 +21,42 @@ public class AddressService {
 
     private final AddressRepository addressRepository;
     private final UserRepository userRepository;
+    private final ChangeStamps changeStamps;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AddressService(AddressRepository addressRepository, UserRepository userRepository) {
+    public AddressService(AddressRepository addressRepository,
+                          UserRepository userRepository,
+                          ChangeStamps changeStamps,
+                          ApplicationEventPublisher eventPublisher) {
         this.addressRepository = addressRepository;
         this.userRepository = userRepository;
+        this.changeStamps = changeStamps;
+        this.eventPublisher = eventPublisher;
     }
 
-    public ResponseEntity<List<Address>> findAddressesByUserId(Long userId) {
-        if (!userRepository.existsById(userId)) {
+    public ResponseEntity<List<Address>> findAddressesByUserId(Long userId, WebRequest request) {
+        ResponseEntity<List<Address>> notModified = ChangeStamps.notModified(request, changeStamps.userAddresses(userId));
+        if (notModified != null) {
+            return notModified;
+        }
+        long invalidations = changeStamps.addressInvalidations();
+        // Lida no primário: a resposta fica associada ao ETag atual e não pode ser anterior a ele
+        List<Address> addresses = DataSourceRouting.onPrimary(() -> addressRepository.findByUserId(userId));
+        // Só confere a existência do usuário quando a lista vem vazia, poupando um round trip no caso comum
+        if (addresses.isEmpty() && !userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("Usuário não encontrado com ID: " + userId);
         }
-        return ResponseEntity.ok(addressRepository.findByUserId(userId));
+        return ChangeStamps.ok(changeStamps.userAddressesLoaded(userId, invalidations), addresses);
     }
 
+    @Transactional(readOnly = true)
     public ResponseEntity<Address> findAddressById(Long id) {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Endereço não encontrado com ID: " + id));
         return ResponseEntity.ok(address);
     }
 
+    @Transactional(readOnly = true)
     public ResponseEntity<Address> findDefaultAddress(Long userId) {
         Address address = addressRepository.findByUserIdAndIsDefaultTrue(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Nenhum endereço padrão encontrado para o usuário"));
@@ -51,7 +72,7 @@ public class AddressService {
 
         // Se for endereço padrão, remove o padrão dos outros endereços do usuário
         if (addressDTO.getIsDefault() != null && addressDTO.getIsDefault()) {
-            removeDefaultFromUserAddresses(addressDTO.getUserId());
+            addressRepository.clearDefault(addressDTO.getUserId());
         }
 
         Address address = Address.builder()
@@ -68,7 +89,9 @@ public class AddressService {
                 .user(user)
                 .build();
 
-        return ResponseEntity.ok(addressRepository.save(address));
+        Address saved = addressRepository.save(address);
+        eventPublisher.publishEvent(new AddressChangedEvent(user.getId()));
+        return ResponseEntity.ok(saved);
     }
 
     @Transactional
@@ -80,7 +103,7 @@ public class AddressService {
 
         // Se for endereço padrão, remove o padrão dos outros endereços do usuário
         if (addressDTO.getIsDefault() != null && addressDTO.getIsDefault() && !address.getIsDefault()) {
-            removeDefaultFromUserAddresses(address.getUser().getId());
+            addressRepository.clearDefaultExcept(address.getUser().getId(), address.getId());
         }
 
         address.setStreet(addressDTO.getStreet());
@@ -94,7 +117,7 @@ public class AddressService {
         address.setAddressType(addressDTO.getAddressType());
         address.setIsDefault(addressDTO.getIsDefault() != null ? addressDTO.getIsDefault() : false);
 
-        return ResponseEntity.ok(addressRepository.save(address));
+        return saveAndPublish(address);
     }
 
     @Transactional
@@ -104,7 +127,7 @@ public class AddressService {
 
         // Se for endereço padrão, remove o padrão dos outros endereços do usuário
         if (addressDTO.getIsDefault() != null && addressDTO.getIsDefault() && !address.getIsDefault()) {
-            removeDefaultFromUserAddresses(address.getUser().getId());
+            addressRepository.clearDefaultExcept(address.getUser().getId(), address.getId());
         }
 
         // Atualiza apenas os campos que foram fornecidos
@@ -142,7 +165,7 @@ public class AddressService {
             address.setIsDefault(addressDTO.getIsDefault());
         }
 
-        return ResponseEntity.ok(addressRepository.save(address));
+        return saveAndPublish(address);
     }
 
     @Transactional
@@ -151,6 +174,7 @@ public class AddressService {
                 .orElseThrow(() -> new ResourceNotFoundException("Endereço não encontrado com ID: " + id));
 
         addressRepository.delete(address);
+        eventPublisher.publishEvent(new AddressChangedEvent(address.getUser().getId()));
         return ResponseEntity.noContent().build();
     }
 
@@ -160,24 +184,20 @@ public class AddressService {
                 .orElseThrow(() -> new ResourceNotFoundException("Endereço não encontrado com ID: " + id));
 
         // Remove o padrão dos outros endereços do usuário
-        removeDefaultFromUserAddresses(address.getUser().getId());
+        addressRepository.clearDefaultExcept(address.getUser().getId(), address.getId());
 
         // Define este como padrão
         address.setIsDefault(true);
-        return ResponseEntity.ok(addressRepository.save(address));
+        return saveAndPublish(address);
     }
 
-    private void removeDefaultFromUserAddresses(Long userId) {
-        List<Address> userAddresses = addressRepository.findByUserId(userId);
-        for (Address addr : userAddresses) {
-            if (addr.getIsDefault()) {
-                addr.setIsDefault(false);
-                addressRepository.save(addr);
-            }
-        }
+    private ResponseEntity<Address> saveAndPublish(Address address) {
+        Address saved = addressRepository.save(address);
+        eventPublisher.publishEvent(new AddressChangedEvent(saved.getUser().getId()));
+        return ResponseEntity.ok(saved);
     }
 
-    private void validateAddressDTO(AddressDTO addressDTO, boolean isRequired) throws Exception {
+    static void validateAddressDTO(AddressDTO addressDTO, boolean isRequired) throws Exception {
         if (isRequired) {
             if (addressDTO.getStreet() == null || addressDTO.getStreet().trim().isEmpty()) {
                 throw new Exception("Rua é obrigatória");
@@ -0,0 +1,131 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Mapa código de barras -> ID do produto em memória, com um filtro de Bloom sobre todos os códigos
+ * já vistos. Montado na inicialização e atualizado a cada escrita de produto (após o commit).
+ * O filtro responde "certamente livre" sem ir ao banco; a constraint única do banco continua
+ * sendo a garantia final contra escritas concorrentes.
+ */
+@Slf4j
+@Component
+public class BarcodeIndex {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final long expectedProducts;
+    private final double falsePositiveRate;
+
+    private final Map<String, Long> idsByBarcode = new ConcurrentHashMap<>();
+    // Inserções no filtro e sua reconstrução são serializadas: um código inserido durante a troca não pode se perder
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private long capacity;
+    private long staleEntries;
+    private volatile boolean ready;
+
+    public BarcodeIndex(ProductRepository productRepository,
+                        EntityManager entityManager,
+                        @Value("${product.barcode.expected-products:100000}") long expectedProducts,
+                        @Value("${product.barcode.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.expectedProducts = expectedProducts;
+        this.falsePositiveRate = falsePositiveRate;
+        this.capacity = expectedProducts;
+        this.filter = new BloomFilter(expectedProducts, falsePositiveRate);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            idsByBarcode.clear();
+            try (Stream<Product> products = DataSourceRouting.onPrimary(productRepository::streamAllOrderById)) {
+                products.forEach(product -> {
+                    if (hasBarcode(product.getBarcode())) {
+                        idsByBarcode.put(product.getBarcode(), product.getId());
+                    }
+                    entityManager.detach(product);
+                });
+            }
+            rebuildFilter();
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+        log.info("Índice de códigos de barras montado com {} códigos em {} ms",
+                idsByBarcode.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        String previous = event.previous() != null ? event.previous().getBarcode() : null;
+        String current = event.product() != null ? event.product().getBarcode() : null;
+        boolean released = hasBarcode(previous) && !previous.equals(current);
+        // Tudo sob o lock: uma remoção fora dele poderia cair no meio de um rebuild() e ser desfeita
+        lock.lock();
+        try {
+            if (released) {
+                idsByBarcode.remove(previous, event.productId());
+                staleEntries++;
+            }
+            if (hasBarcode(current)) {
+                idsByBarcode.put(current, event.productId());
+                filter.put(current);
+            }
+            // Códigos removidos continuam no filtro como falsos positivos; reconstrói quando eles
+            // ou o número de códigos passam do que o filtro foi dimensionado para guardar
+            if (idsByBarcode.size() > capacity || staleEntries > capacity / 10) {
+                rebuildFilter();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Long findId(String barcode) {
+        return idsByBarcode.get(barcode);
+    }
+
+    // false: nenhum produto usa o código. true: pode estar em uso, confirmar no banco
+    public boolean mightBeInUse(String barcode) {
+        return !ready || filter.mightContain(barcode);
+    }
+
+    private void rebuildFilter() {
+        capacity = Math.max(expectedProducts, idsByBarcode.size() * 2L);
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        idsByBarcode.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        staleEntries = 0;
+    }
+
+    private static boolean hasBarcode(String barcode) {
+        return barcode != null && !barcode.trim().isEmpty();
+    }
+}
@@ -0,0 +1,210 @@
+package com.jeferson.trajefino.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jeferson.trajefino.event.AddressChangedEvent;
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.event.ProductStockChangedEvent;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ETag e Last-Modified das leituras condicionais. O produto usa a própria versão (updatedAt) e as
+ * coleções (páginas de categoria, endereços do usuário) usam um contador incrementado a cada escrita.
+ * Um If-None-Match que bate com o carimbo em memória responde 304 sem banco e sem serialização.
+ * <p>
+ * Os carimbos ficam em caches limitados que expiram junto com o refresh do ProductCache: uma escrita
+ * feita em outra instância só invalida o carimbo local quando ele expira, então a defasagem entre
+ * instâncias fica limitada a esse TTL. Só são guardados carimbos de chaves já lidas com sucesso; cada
+ * versão de coleção nasce com uma geração nova, para que uma entrada expirada e recriada (ou de outra
+ * instância, após um restart) nunca repita um ETag antigo.
+ */
+@Component
+public class ChangeStamps {
+
+    public record ChangeStamp(String etag, Instant lastModified) {
+    }
+
+    private record Version(long generation, long value, Instant modifiedAt) {
+
+        // Last-Modified estritamente crescente, mesmo com duas escritas no mesmo segundo
+        Version next() {
+            Instant modified = now();
+            return new Version(generation, value + 1, modified.isAfter(modifiedAt) ? modified : modifiedAt.plusSeconds(1));
+        }
+
+        String tag() {
+            return Long.toString(generation, 36) + "-" + value;
+        }
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generations = new AtomicLong();
+
+    private final Cache<Long, ChangeStamp> products;
+    private final AtomicLong productInvalidations = new AtomicLong();
+    private final Cache<String, Version> categories;
+    private final AtomicLong categoryInvalidations = new AtomicLong();
+    private final Cache<Long, Version> userAddresses;
+    private final AtomicLong addressInvalidations = new AtomicLong();
+
+    public ChangeStamps(@Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.refresh-after-write:30s}") Duration expireAfterWrite) {
+        this.products = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).build();
+        this.categories = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).build();
+        this.userAddresses = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).build();
+    }
+
+    // Resposta 304 se o cliente já tem a versão atual; null para seguir com a leitura normal
+    public static <T> ResponseEntity<T> notModified(WebRequest request, ChangeStamp stamp) {
+        if (stamp != null && request.checkNotModified(stamp.etag(), stamp.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return null;
+    }
+
+    public static <T> ResponseEntity<T> ok(ChangeStamp stamp, T body) {
+        return ResponseEntity.ok()
+                .eTag(stamp.etag())
+                .lastModified(stamp.lastModified())
+                .body(body);
+    }
+
+    // Carimbo conhecido do produto, ou null se ele ainda não foi servido desde a última alteração
+    public ChangeStamp product(Long id) {
+        return products.getIfPresent(id);
+    }
+
+    /**
+     * Deriva o carimbo do produto carregado. Só é guardado se nenhuma invalidação ocorreu desde
+     * {@code invalidationsBefore}, para que uma leitura antiga não sobrescreva a remoção feita por uma escrita.
+     */
+    public ChangeStamp productLoaded(Product product, long invalidationsBefore) {
+        LocalDateTime version = product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt();
+        ChangeStamp stamp = version == null
+                ? new ChangeStamp("\"p" + product.getId() + "-" + epoch + "\"", now())
+                : new ChangeStamp("\"p" + product.getId() + "-" + Long.toString(toNanos(version), 36) + "\"",
+                        version.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS));
+        products.asMap().compute(product.getId(), (id, current) ->
+                productInvalidations.get() == invalidationsBefore ? stamp : current);
+        return stamp;
+    }
+
+    public long productInvalidations() {
+        return productInvalidations.get();
+    }
+
+    public long categoryInvalidations() {
+        return categoryInvalidations.get();
+    }
+
+    // Carimbo conhecido da categoria, ou null se ela não foi lida desde que a entrada expirou
+    public ChangeStamp categoryPage(String category, long afterId, int size) {
+        Version version = categories.getIfPresent(category);
+        return version == null ? null : categoryStamp(version, afterId, size);
+    }
+
+    // Chamado só depois de uma página com itens, para não guardar carimbo de categoria inexistente
+    public ChangeStamp categoryPageLoaded(String category, long afterId, int size, long invalidationsBefore) {
+        return categoryStamp(remember(categories, category, categoryInvalidations, invalidationsBefore), afterId, size);
+    }
+
+    public long addressInvalidations() {
+        return addressInvalidations.get();
+    }
+
+    public ChangeStamp userAddresses(Long userId) {
+        Version version = userAddresses.getIfPresent(userId);
+        return version == null ? null : addressStamp(version, userId);
+    }
+
+    // Chamado só depois de confirmar que o usuário existe
+    public ChangeStamp userAddressesLoaded(Long userId, long invalidationsBefore) {
+        return addressStamp(remember(userAddresses, userId, addressInvalidations, invalidationsBefore), userId);
+    }
+
+    // Roda depois do ProductCache: o carimbo só muda quando o cache já não serve a versão antiga
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateProduct(event.productId());
+        if (event.previous() != null) {
+            bumpCategory(event.previous().getCategory());
+        }
+        if (event.product() != null) {
+            bumpCategory(event.product().getCategory());
+        }
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        for (AdjustedStock stock : event.adjusted()) {
+            invalidateProduct(stock.productId());
+            bumpCategory(stock.category());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAddressChanged(AddressChangedEvent event) {
+        addressInvalidations.incrementAndGet();
+        userAddresses.asMap().computeIfPresent(event.userId(), (id, version) -> version.next());
+    }
+
+    private void invalidateProduct(Long id) {
+        productInvalidations.incrementAndGet();
+        products.invalidate(id);
+    }
+
+    // Chave ausente não precisa de entrada: a próxima leitura cria uma geração nova
+    private void bumpCategory(String category) {
+        if (category != null) {
+            categoryInvalidations.incrementAndGet();
+            categories.asMap().computeIfPresent(category, (key, version) -> version.next());
+        }
+    }
+
+    /**
+     * Versão a associar ao conteúdo recém-lido. Se houve escrita desde {@code invalidationsBefore}, o
+     * conteúdo pode ser anterior a ela: devolve uma geração nova sem guardá-la, que nunca gera 304.
+     */
+    private <K> Version remember(Cache<K, Version> versions, K key, AtomicLong invalidations, long invalidationsBefore) {
+        Version fresh = new Version(generations.incrementAndGet(), 0, now());
+        Version stored = versions.asMap().compute(key, (k, current) ->
+                current != null || invalidations.get() != invalidationsBefore ? current : fresh);
+        return stored != null && invalidations.get() == invalidationsBefore ? stored : fresh;
+    }
+
+    private ChangeStamp categoryStamp(Version version, long afterId, int size) {
+        return new ChangeStamp("\"c-" + epoch + "-" + version.tag() + "-" + afterId + "-" + size + "\"", version.modifiedAt());
+    }
+
+    private ChangeStamp addressStamp(Version version, Long userId) {
+        return new ChangeStamp("\"a" + userId + "-" + epoch + "-" + version.tag() + "\"", version.modifiedAt());
+    }
+
+    private static long toNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    // Last-Modified tem resolução de segundos
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+}
@@ -1,5 +1,6 @@
 package com.jeferson.trajefino.service;
 
+import com.jeferson.trajefino.config.DataSourceRouting;
 import com.jeferson.trajefino.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,7 +18,8 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUserName(username)
+        // No primário: uma senha recém-alterada não pode ser lida (e cacheada) de uma réplica atrasada
+        return DataSourceRouting.onPrimary(() -> userRepository.findByUserName(username))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.exception.BadRequestException;
+import com.jeferson.trajefino.model.dto.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginação por cursor (keyset) sobre o ID, que é crescente junto com o createdAt.
+ * O cursor é o último ID entregue codificado em Base64, opaco para o cliente.
+ */
+final class PageCursor {
+
+    static final int DEFAULT_SIZE = 50;
+    static final int MAX_SIZE = 200;
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new BadRequestException("Cursor inválido: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido: " + cursor);
+        }
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Pageable pageable(Integer size) {
+        return PageRequest.of(0, resolveSize(size), Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    // Para consultas @Query que já trazem o "order by" do keyset
+    static Pageable limit(Integer size) {
+        return PageRequest.of(0, resolveSize(size));
+    }
+
+    static int resolveSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    static <T> CursorPage<T> toPage(Slice<T> slice, Function<T, Long> idOf) {
+        List<T> items = slice.getContent();
+        String nextCursor = slice.hasNext() && !items.isEmpty()
+                ? encode(idOf.apply(items.get(items.size() - 1)))
+                : null;
+        return CursorPage.<T>builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.exception.BadRequestException;
+import com.jeferson.trajefino.exception.ResourceNotFoundException;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.BarcodeLookupResult;
+import com.jeferson.trajefino.model.dto.ProductBarcode;
+import com.jeferson.trajefino.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Busca de produtos por código de barras para os terminais de venda. O código é resolvido pelo
+ * BarcodeIndex e o produto vem do ProductCache; o banco só é consultado quando o índice não conhece
+ * o código. O filtro de Bloom não é usado aqui: ele é local e não enxerga códigos gravados por outra
+ * instância, então o "certamente livre" dele só serve para a checagem de duplicidade antes da escrita.
+ */
+@Service
+public class ProductBarcodeService {
+
+    private final BarcodeIndex barcodeIndex;
+    private final ProductCache productCache;
+    private final ProductRepository productRepository;
+    private final int maxLookup;
+
+    public ProductBarcodeService(BarcodeIndex barcodeIndex,
+                                 ProductCache productCache,
+                                 ProductRepository productRepository,
+                                 @Value("${product.barcode.max-lookup:500}") int maxLookup) {
+        this.barcodeIndex = barcodeIndex;
+        this.productCache = productCache;
+        this.productRepository = productRepository;
+        this.maxLookup = maxLookup;
+    }
+
+    public ResponseEntity<Product> findByBarcode(String barcode) {
+        Product product = fromIndex(barcode)
+                .or(() -> DataSourceRouting.onPrimary(() -> productRepository.findByBarcode(barcode)))
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com código de barras: " + barcode));
+        return ResponseEntity.ok(product);
+    }
+
+    public ResponseEntity<BarcodeLookupResult> lookup(List<String> barcodes) {
+        if (barcodes == null || barcodes.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um código de barras");
+        }
+        if (barcodes.size() > maxLookup) {
+            throw new BadRequestException("No máximo " + maxLookup + " códigos por requisição");
+        }
+
+        Map<String, Product> products = new LinkedHashMap<>();
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (String barcode : new LinkedHashSet<>(barcodes)) {
+            if (barcode == null || barcode.trim().isEmpty()) {
+                continue;
+            }
+            Optional<Product> product = fromIndex(barcode);
+            if (product.isPresent()) {
+                products.put(barcode, product.get());
+            } else {
+                unresolved.add(barcode);
+            }
+        }
+
+        // Os que sobraram numa única consulta IN
+        if (!unresolved.isEmpty()) {
+            for (ProductBarcode owner : DataSourceRouting.onPrimary(() -> productRepository.findBarcodeOwners(unresolved))) {
+                productCache.findById(owner.id()).ifPresent(product -> products.put(owner.barcode(), product));
+            }
+        }
+
+        List<String> notFound = new ArrayList<>();
+        for (String barcode : barcodes) {
+            if (barcode != null && !products.containsKey(barcode) && !notFound.contains(barcode)) {
+                notFound.add(barcode);
+            }
+        }
+        return ResponseEntity.ok(new BarcodeLookupResult(products, notFound));
+    }
+
+    private Optional<Product> fromIndex(String barcode) {
+        Long id = barcodeIndex.findId(barcode);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return productCache.findById(id).filter(product -> barcode.equals(product.getBarcode()));
+    }
+}
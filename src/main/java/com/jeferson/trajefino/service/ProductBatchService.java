@@ -0,0 +1,217 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.exception.BadRequestException;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.BatchItemResult;
+import com.jeferson.trajefino.model.dto.ProductBarcode;
+import com.jeferson.trajefino.model.dto.ProductBatchResult;
+import com.jeferson.trajefino.model.dto.ProductBatchUpdateItem;
+import com.jeferson.trajefino.model.dto.ProductDTO;
+import com.jeferson.trajefino.model.enums.BatchItemStatus;
+import com.jeferson.trajefino.repository.ProductRepository;
+import com.jeferson.trajefino.repository.ProductStockRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Criação e atualização de produtos em lote. Cada lote faz uma única consulta IN para os códigos
+ * de barras (e outra para os produtos, na atualização) e os inserts/updates saem em batches JDBC.
+ * Itens inválidos são reportados individualmente sem impedir a gravação dos demais.
+ * <p>
+ * Na atualização, um ID repetido no lote falha em todas as ocorrências. Os donos dos códigos de barras
+ * são os de antes do lote: como a constraint única é checada a cada UPDATE, trocar códigos entre
+ * produtos ou passar um código de um produto a outro exige dois lotes (liberar, depois atribuir).
+ */
+@Service
+public class ProductBatchService {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BarcodeIndex barcodeIndex;
+
+    public ProductBatchService(ProductRepository productRepository,
+                               ProductStockRepository productStockRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               BarcodeIndex barcodeIndex) {
+        this.productRepository = productRepository;
+        this.productStockRepository = productStockRepository;
+        this.eventPublisher = eventPublisher;
+        this.barcodeIndex = barcodeIndex;
+    }
+
+    @Transactional
+    public ResponseEntity<ProductBatchResult> createProducts(List<ProductDTO> productDTOs) {
+        checkBatchSize(productDTOs);
+
+        Map<String, Long> barcodeOwners = findBarcodeOwners(productDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(ProductDTO::getBarcode));
+        Set<String> claimedBarcodes = new HashSet<>();
+
+        List<BatchItemResult> results = new ArrayList<>(productDTOs.size());
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < productDTOs.size(); i++) {
+            ProductDTO productDTO = productDTOs.get(i);
+            try {
+                if (productDTO == null) {
+                    throw new Exception("Dados do produto são obrigatórios");
+                }
+                ProductService.validateProductDTO(productDTO, true);
+                validateStock(productDTO);
+                checkBarcode(productDTO.getBarcode(), null, barcodeOwners, claimedBarcodes);
+
+                Product product = ProductService.buildProduct(productDTO);
+                products.add(product);
+                results.add(result(i, null, BatchItemStatus.CREATED, null));
+            } catch (Exception e) {
+                results.add(result(i, null, BatchItemStatus.FAILED, e.getMessage()));
+            }
+        }
+
+        // Com IDs por sequence os inserts são agrupados pelo Hibernate (hibernate.jdbc.batch_size)
+        Iterator<Product> saved = productRepository.saveAll(products).iterator();
+        for (BatchItemResult result : results) {
+            if (result.getStatus() == BatchItemStatus.CREATED) {
+                Product product = saved.next();
+                result.setId(product.getId());
+                eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), null, product));
+            }
+        }
+
+        return ResponseEntity.ok(ProductBatchResult.of(results));
+    }
+
+    @Transactional
+    public ResponseEntity<ProductBatchResult> updateProducts(List<ProductBatchUpdateItem> items) {
+        checkBatchSize(items);
+
+        Map<Long, Long> occurrences = items.stream()
+                .filter(Objects::nonNull)
+                .map(ProductBatchUpdateItem::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        Set<Long> ids = occurrences.keySet();
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<String, Long> barcodeOwners = findBarcodeOwners(items.stream()
+                .filter(item -> item != null && item.getProduct() != null)
+                .map(item -> item.getProduct().getBarcode()));
+        Set<String> claimedBarcodes = new HashSet<>();
+
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        List<ProductChangedEvent> events = new ArrayList<>();
+        Map<Long, Integer> stocks = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            ProductBatchUpdateItem item = items.get(i);
+            Long id = item != null ? item.getId() : null;
+            try {
+                if (id == null) {
+                    throw new Exception("ID do produto é obrigatório");
+                }
+                if (occurrences.get(id) > 1) {
+                    throw new Exception("ID repetido no lote: " + id);
+                }
+                if (item.getProduct() == null) {
+                    throw new Exception("Dados do produto são obrigatórios");
+                }
+                Product product = products.get(id);
+                if (product == null) {
+                    throw new Exception("Produto não encontrado com ID: " + id);
+                }
+                ProductDTO productDTO = item.getProduct();
+                ProductService.validateProductDTO(productDTO, true);
+                if (productDTO.getStock() == null) {
+                    throw new Exception("Estoque é obrigatório");
+                }
+                validateStock(productDTO);
+                checkBarcode(productDTO.getBarcode(), id, barcodeOwners, claimedBarcodes);
+
+                Product previous = product.toBuilder().build();
+                ProductService.applyFullUpdate(product, productDTO);
+                if (ProductService.stockChanged(previous, product)) {
+                    stocks.put(id, product.getStock());
+                }
+                events.add(new ProductChangedEvent(id, previous, product));
+                results.add(result(i, id, BatchItemStatus.UPDATED, null));
+            } catch (Exception e) {
+                results.add(result(i, id, BatchItemStatus.FAILED, e.getMessage()));
+            }
+        }
+
+        // As entidades já estão gerenciadas: os UPDATEs saem em batch no flush do commit, com todas as
+        // colunas menos o stock, que vai num único UPDATE para os itens em que mudou
+        productStockRepository.setStocks(stocks);
+        events.forEach(eventPublisher::publishEvent);
+        return ResponseEntity.ok(ProductBatchResult.of(results));
+    }
+
+    private Map<String, Long> findBarcodeOwners(Stream<String> barcodes) {
+        Set<String> distinct = barcodes
+                .filter(barcode -> barcode != null && !barcode.trim().isEmpty())
+                // Códigos que o filtro de Bloom garante livres nem entram na consulta
+                .filter(barcodeIndex::mightBeInUse)
+                .collect(Collectors.toSet());
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> owners = new HashMap<>();
+        for (ProductBarcode owner : productRepository.findBarcodeOwners(distinct)) {
+            owners.put(owner.barcode(), owner.id());
+        }
+        return owners;
+    }
+
+    private static void checkBarcode(String barcode, Long productId, Map<String, Long> barcodeOwners,
+                                     Set<String> claimedBarcodes) throws Exception {
+        if (barcode == null || barcode.trim().isEmpty()) {
+            return;
+        }
+        Long owner = barcodeOwners.get(barcode);
+        if ((owner != null && !owner.equals(productId)) || !claimedBarcodes.add(barcode)) {
+            throw new Exception("Código de barras já está em uso: " + barcode);
+        }
+    }
+
+    private static void validateStock(ProductDTO productDTO) throws Exception {
+        if (productDTO.getStock() != null && productDTO.getStock() < 0) {
+            throw new Exception("Estoque não pode ser negativo");
+        }
+    }
+
+    private static void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("O lote deve conter ao menos um item");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("O lote deve conter no máximo " + MAX_BATCH_SIZE + " itens");
+        }
+    }
+
+    private static BatchItemResult result(int index, Long id, BatchItemStatus status, String message) {
+        return BatchItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
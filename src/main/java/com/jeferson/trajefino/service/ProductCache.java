@@ -0,0 +1,139 @@
+package com.jeferson.trajefino.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jeferson.trajefino.config.CacheLoading;
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.event.ProductStockChangedEvent;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+import com.jeferson.trajefino.model.dto.CursorPage;
+import com.jeferson.trajefino.model.dto.ProductCacheStats;
+import com.jeferson.trajefino.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cache read-through na frente do ProductRepository para leituras por ID e por categoria.
+ * Após refreshAfterWrite a entrada continua sendo servida enquanto é recarregada em segundo plano;
+ * se o banco estiver indisponível, o valor antigo permanece até expireAfterWrite.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    // Assíncronos: a carga roda fora do lock do Caffeine, ver CacheLoading
+    private final AsyncLoadingCache<Long, Product> byId;
+    private final AsyncLoadingCache<CategoryPageKey, CursorPage<Product>> byCategory;
+
+    record CategoryPageKey(String category, long afterId, int size) {
+    }
+
+    public ProductCache(ProductRepository productRepository,
+                        EntityManagerFactory entityManagerFactory,
+                        @Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                        @Value("${product.cache.refresh-after-write:30s}") Duration refreshAfterWrite,
+                        MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .executor(CacheLoading.executor())
+                .recordStats()
+                .buildAsync(id -> DataSourceRouting.onPrimary(() -> productRepository.findById(id).orElse(null)));
+        this.byCategory = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .executor(CacheLoading.executor())
+                .recordStats()
+                .buildAsync(this::loadCategoryPage);
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "product.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byCategory, "product.by-category");
+    }
+
+    public Optional<Product> findById(Long id) {
+        return Optional.ofNullable(CacheLoading.join(byId.get(id)));
+    }
+
+    public CursorPage<Product> findByCategory(String category, long afterId, int size) {
+        return CacheLoading.join(byCategory.get(new CategoryPageKey(category, afterId, size)));
+    }
+
+    // Invalida somente o ID alterado e as páginas da categoria antiga e da nova.
+    // Roda antes de ChangeStamps, para que um novo ETag nunca seja associado ao conteúdo antigo
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // O Hibernate grava no segundo nível o estado da entidade editada, incluindo o stock lido no
+        // carregamento; um ajuste JDBC concorrente ficaria escondido até a expiração da região
+        entityManagerFactory.getCache().evict(Product.class, event.productId());
+        byId.synchronous().invalidate(event.productId());
+        if (event.previous() != null) {
+            invalidateCategory(event.previous().getCategory());
+        }
+        if (event.product() != null) {
+            invalidateCategory(event.product().getCategory());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        Set<String> categories = new HashSet<>();
+        for (AdjustedStock stock : event.adjusted()) {
+            // O UPDATE de estoque é JDBC puro, o Hibernate não sabe que a entrada de segundo nível ficou velha
+            entityManagerFactory.getCache().evict(Product.class, stock.productId());
+            byId.synchronous().invalidate(stock.productId());
+            categories.add(stock.category());
+        }
+        byCategory.asMap().keySet().removeIf(key -> categories.contains(key.category()));
+    }
+
+    public ProductCacheStats stats() {
+        return ProductCacheStats.builder()
+                .byId(toRegion(byId.synchronous()))
+                .byCategory(toRegion(byCategory.synchronous()))
+                .build();
+    }
+
+    private CursorPage<Product> loadCategoryPage(CategoryPageKey key) {
+        return DataSourceRouting.onPrimary(() -> PageCursor.toPage(productRepository.findByCategoryAndIdGreaterThan(
+                key.category(), key.afterId(), PageCursor.pageable(key.size())), Product::getId));
+    }
+
+    private void invalidateCategory(String category) {
+        byCategory.asMap().keySet().removeIf(key -> Objects.equals(key.category(), category));
+    }
+
+    private static ProductCacheStats.Region toRegion(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return ProductCacheStats.Region.builder()
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .loadFailureCount(stats.loadFailureCount())
+                .build();
+    }
+}
@@ -0,0 +1,226 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.ProductFacets;
+import com.jeferson.trajefino.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Contagens de produtos por categoria, marca, faixa de preço e status, mantidas em memória.
+ * Montadas na inicialização e ajustadas a cada escrita do ProductService (após o commit), então
+ * consultar as facetas custa o número de valores distintos, não uma varredura dos produtos.
+ */
+@Slf4j
+@Component
+public class ProductFacetIndex {
+
+    static final String NOT_INFORMED = "(não informado)";
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final List<BigDecimal> priceBands;
+
+    // Valores de faceta de cada produto: é o "antes" de cada ajuste, o que torna a aplicação idempotente
+    private final Map<Long, FacetKey> keys = new HashMap<>();
+    private Counts all = new Counts();
+    private final Map<String, Counts> byCategory = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private record FacetKey(String category, String brand, String priceBand, boolean active) {
+    }
+
+    private static final class Counts {
+        private long total;
+        private final Map<String, Long> category = new HashMap<>();
+        private final Map<String, Long> brand = new HashMap<>();
+        private final Map<String, Long> priceBand = new HashMap<>();
+        private final Map<String, Long> active = new HashMap<>();
+
+        void add(FacetKey key, long delta) {
+            total += delta;
+            adjust(category, key.category(), delta);
+            adjust(brand, key.brand(), delta);
+            adjust(priceBand, key.priceBand(), delta);
+            adjust(active, String.valueOf(key.active()), delta);
+        }
+
+        private static void adjust(Map<String, Long> counts, String value, long delta) {
+            // Remove o valor ao chegar a zero para a faceta não listar valores sem produtos
+            counts.compute(value, (k, count) -> {
+                long updated = (count == null ? 0 : count) + delta;
+                return updated == 0 ? null : updated;
+            });
+        }
+    }
+
+    public ProductFacetIndex(ProductRepository productRepository,
+                             EntityManager entityManager,
+                             @Value("${product.facets.price-bands:50,100,250,500,1000}") List<BigDecimal> priceBands) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.priceBands = priceBands.stream().sorted().toList();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            keys.clear();
+            byCategory.clear();
+            all = new Counts();
+            // Escritas que chegarem durante a carga esperam o lock e são aplicadas por cima
+            try (Stream<Product> products = DataSourceRouting.onPrimary(productRepository::streamAllOrderById)) {
+                products.forEach(product -> {
+                    put(product);
+                    entityManager.detach(product);
+                });
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Facetas de produtos montadas com {} produtos em {} ms",
+                all.total, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // O estoque não é faceta, então ajustes de estoque não interessam aqui
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.productId());
+            if (!event.isDeleted()) {
+                put(event.product());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Sem filtro ou só por categoria: cópia dos agregados, O(número de valores das facetas)
+    public ProductFacets facets(String category) {
+        lock.readLock().lock();
+        try {
+            if (category == null) {
+                return toFacets(all);
+            }
+            Counts counts = byCategory.get(category);
+            return counts != null ? toFacets(counts) : toFacets(new Counts());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Com texto a contagem é sobre os produtos encontrados: O(resultados da busca)
+    public ProductFacets facets(Collection<Long> productIds, String category) {
+        Counts counts = new Counts();
+        lock.readLock().lock();
+        try {
+            for (Long id : productIds) {
+                FacetKey key = keys.get(id);
+                if (key != null && (category == null || category.equals(key.category()))) {
+                    counts.add(key, 1);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toFacets(counts);
+    }
+
+    private void put(Product product) {
+        FacetKey key = new FacetKey(valueOrNotInformed(product.getCategory()), valueOrNotInformed(product.getBrand()),
+                priceBand(product.getPrice()), Boolean.TRUE.equals(product.getActive()));
+        keys.put(product.getId(), key);
+        all.add(key, 1);
+        byCategory.computeIfAbsent(key.category(), c -> new Counts()).add(key, 1);
+    }
+
+    private void remove(Long productId) {
+        FacetKey key = keys.remove(productId);
+        if (key == null) {
+            return;
+        }
+        all.add(key, -1);
+        Counts counts = byCategory.get(key.category());
+        counts.add(key, -1);
+        if (counts.total == 0) {
+            byCategory.remove(key.category());
+        }
+    }
+
+    // Faixas [0-50), [50-100), ..., [1000+ conforme product.facets.price-bands
+    String priceBand(BigDecimal price) {
+        if (price == null) {
+            return NOT_INFORMED;
+        }
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal upper : priceBands) {
+            if (price.compareTo(upper) < 0) {
+                return lower.toPlainString() + "-" + upper.toPlainString();
+            }
+            lower = upper;
+        }
+        return lower.toPlainString() + "+";
+    }
+
+    private ProductFacets toFacets(Counts counts) {
+        return new ProductFacets(counts.total,
+                new TreeMap<>(counts.category),
+                new TreeMap<>(counts.brand),
+                inBandOrder(counts.priceBand),
+                new TreeMap<>(counts.active));
+    }
+
+    private Map<String, Long> inBandOrder(Map<String, Long> counts) {
+        List<String> order = new ArrayList<>();
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal upper : priceBands) {
+            order.add(lower.toPlainString() + "-" + upper.toPlainString());
+            lower = upper;
+        }
+        order.add(lower.toPlainString() + "+");
+        order.add(NOT_INFORMED);
+
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        for (String band : order) {
+            Long count = counts.get(band);
+            if (count != null) {
+                ordered.put(band, count);
+            }
+        }
+        return ordered;
+    }
+
+    private static String valueOrNotInformed(String value) {
+        return value == null || value.isBlank() ? NOT_INFORMED : value;
+    }
+}
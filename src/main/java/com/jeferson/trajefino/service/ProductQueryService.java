@@ -0,0 +1,242 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.exception.BadRequestException;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.CursorPage;
+import com.jeferson.trajefino.model.dto.ProductQueryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Consulta de produtos com qualquer combinação de filtros, ordenação e cursor, compilada em um único
+ * SELECT parametrizado. O JPQL depende só do formato da consulta (quais filtros vieram, ordenação e
+ * presença de cursor), então cada formato é montado uma vez e reaproveitado; com o texto idêntico o
+ * Hibernate também reaproveita a tradução para SQL do seu plan cache.
+ */
+@Service
+public class ProductQueryService {
+
+    private final EntityManager entityManager;
+
+    // No máximo 2^8 combinações de filtros x 4 ordenações x 2 direções x cursor: não precisa de despejo
+    private final Map<Shape, String> compiled = new ConcurrentHashMap<>();
+
+    enum Filter {
+        CATEGORY("category", "p.category = :category", query -> blankToNull(query.getCategory())),
+        BRAND("brand", "p.brand = :brand", query -> blankToNull(query.getBrand())),
+        MIN_PRICE("minPrice", "p.price >= :minPrice", ProductQueryDTO::getMinPrice),
+        MAX_PRICE("maxPrice", "p.price <= :maxPrice", ProductQueryDTO::getMaxPrice),
+        MIN_STOCK("minStock", "p.stock >= :minStock", ProductQueryDTO::getMinStock),
+        MAX_STOCK("maxStock", "p.stock <= :maxStock", ProductQueryDTO::getMaxStock),
+        ACTIVE("active", "p.active = :active", ProductQueryDTO::getActive),
+        // lower(name) LIKE '%...%' é atendido pelo índice trigram ix_product_name_trgm
+        NAME("name", "lower(p.name) like :name escape '\\'", query -> likePattern(query.getName()));
+
+        private final String parameter;
+        private final String condition;
+        private final Function<ProductQueryDTO, Object> value;
+
+        Filter(String parameter, String condition, Function<ProductQueryDTO, Object> value) {
+            this.parameter = parameter;
+            this.condition = condition;
+            this.value = value;
+        }
+    }
+
+    // Só campos NOT NULL: o keyset (valor, id) não funciona com nulos
+    enum SortField {
+        ID("id", Product::getId, Long::valueOf),
+        NAME("name", Product::getName, value -> value),
+        PRICE("price", Product::getPrice, BigDecimal::new),
+        STOCK("stock", Product::getStock, Integer::valueOf);
+
+        private final String property;
+        private final Function<Product, Object> value;
+        private final Function<String, Object> parser;
+
+        SortField(String property, Function<Product, Object> value, Function<String, Object> parser) {
+            this.property = property;
+            this.value = value;
+            this.parser = parser;
+        }
+    }
+
+    record Shape(int filters, SortField sort, boolean descending, boolean afterCursor) {
+    }
+
+    // Último item entregue; sort amarra o cursor à ordenação em que foi gerado
+    private record QueryCursor(String sort, long id, String value) {
+    }
+
+    public ProductQueryService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<Product>> query(ProductQueryDTO query) {
+        validateRanges(query);
+        String sortSpec = StringUtils.hasText(query.getSort())
+                ? query.getSort().replace(" ", "").toLowerCase(Locale.ROOT)
+                : "id";
+        SortField sort = parseSortField(sortSpec);
+        boolean descending = sortSpec.endsWith(",desc");
+        QueryCursor cursor = decodeCursor(query.getCursor(), sortSpec);
+        int size = PageCursor.resolveSize(query.getSize());
+
+        int filters = 0;
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (Filter filter : Filter.values()) {
+            Object value = filter.value.apply(query);
+            if (value != null) {
+                filters |= 1 << filter.ordinal();
+                parameters.put(filter.parameter, value);
+            }
+        }
+        if (cursor != null) {
+            parameters.put("afterId", cursor.id());
+            if (sort != SortField.ID) {
+                parameters.put("afterValue", parseCursorValue(sort, cursor));
+            }
+        }
+
+        String jpql = compiled.computeIfAbsent(new Shape(filters, sort, descending, cursor != null),
+                ProductQueryService::compile);
+        TypedQuery<Product> typedQuery = entityManager.createQuery(jpql, Product.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                // Um a mais para saber se há próxima página sem um COUNT
+                .setMaxResults(size + 1);
+        parameters.forEach(typedQuery::setParameter);
+        List<Product> rows = typedQuery.getResultList();
+
+        boolean hasNext = rows.size() > size;
+        List<Product> items = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(new QueryCursor(sortSpec, last.getId(), String.valueOf(sort.value.apply(last))));
+        }
+        return ResponseEntity.ok(CursorPage.<Product>builder()
+                .items(List.copyOf(items))
+                .size(items.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build());
+    }
+
+    static String compile(Shape shape) {
+        List<String> conditions = new ArrayList<>();
+        for (Filter filter : Filter.values()) {
+            if ((shape.filters() & (1 << filter.ordinal())) != 0) {
+                conditions.add(filter.condition);
+            }
+        }
+        String direction = shape.descending() ? "desc" : "asc";
+        String comparison = shape.descending() ? "<" : ">";
+        String column = "p." + shape.sort().property;
+        if (shape.afterCursor()) {
+            // Comparação de linha: o PostgreSQL a usa como limite inicial do Index Scan em (coluna, id),
+            // coisa que a forma expandida "a > x or (a = x and id > y)" não permite
+            conditions.add(shape.sort() == SortField.ID
+                    ? "p.id " + comparison + " :afterId"
+                    : "(" + column + ", p.id) " + comparison + " (:afterValue, :afterId)");
+        }
+
+        StringBuilder jpql = new StringBuilder("select p from Product p");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by ");
+        if (shape.sort() != SortField.ID) {
+            jpql.append(column).append(' ').append(direction).append(", ");
+        }
+        jpql.append("p.id ").append(direction);
+        return jpql.toString();
+    }
+
+    private static void validateRanges(ProductQueryDTO query) {
+        if (query.getMinPrice() != null && query.getMaxPrice() != null
+                && query.getMinPrice().compareTo(query.getMaxPrice()) > 0) {
+            throw new BadRequestException("minPrice não pode ser maior que maxPrice");
+        }
+        if (query.getMinStock() != null && query.getMaxStock() != null && query.getMinStock() > query.getMaxStock()) {
+            throw new BadRequestException("minStock não pode ser maior que maxStock");
+        }
+    }
+
+    private static SortField parseSortField(String sortSpec) {
+        String[] parts = sortSpec.split(",");
+        if (parts.length > 2 || (parts.length == 2 && !parts[1].equals("asc") && !parts[1].equals("desc"))) {
+            throw new BadRequestException("Ordenação inválida: " + sortSpec);
+        }
+        for (SortField field : SortField.values()) {
+            if (field.property.equals(parts[0])) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Ordenação não suportada: " + parts[0] + " (use id, name, price ou stock)");
+    }
+
+    private static Object parseCursorValue(SortField sort, QueryCursor cursor) {
+        try {
+            return sort.parser.apply(cursor.value());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    private static QueryCursor decodeCursor(String cursor, String sortSpec) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // q:<ordenação>\n<id>\n<valor>; o valor vem por último porque pode conter qualquer caractere
+            String[] parts = raw.split("\n", 3);
+            if (parts.length != 3 || !parts[0].startsWith("q:")) {
+                throw new BadRequestException("Cursor inválido: " + cursor);
+            }
+            if (!parts[0].substring(2).equals(sortSpec)) {
+                throw new BadRequestException("O cursor foi gerado com outra ordenação");
+            }
+            return new QueryCursor(sortSpec, Long.parseLong(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static String encodeCursor(QueryCursor cursor) {
+        String raw = "q:" + cursor.sort() + "\n" + cursor.id() + "\n" + cursor.value();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String blankToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+
+    private static String likePattern(String text) {
+        if (!StringUtils.hasText(text)) {
+            return null;
+        }
+        String escaped = text.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
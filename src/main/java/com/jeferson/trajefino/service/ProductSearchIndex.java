@@ -0,0 +1,248 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.event.ProductStockChangedEvent;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+import com.jeferson.trajefino.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas em memória sobre nome, marca e categoria dos produtos.
+ * Montado na inicialização e atualizado a cada escrita do ProductService (após o commit).
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    static final int MAX_RESULTS = 100;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 1;
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+
+    // trigrama -> (id do produto -> maior peso do campo onde o trigrama aparece)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private record Document(Product product, String name, Map<String, Integer> grams) {
+    }
+
+    private record Hit(Document document, double score) {
+    }
+
+    public ProductSearchIndex(ProductRepository productRepository, EntityManager entityManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            // Escritas que chegarem durante a carga esperam o lock e são aplicadas por cima
+            try (Stream<Product> products = DataSourceRouting.onPrimary(productRepository::streamAllOrderById)) {
+                products.forEach(product -> {
+                    index(product);
+                    entityManager.detach(product);
+                });
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de busca de produtos montado com {} produtos em {} ms",
+                size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            index(event.product());
+        }
+    }
+
+    // Os trigramas não mudam com o estoque: só troca a cópia do produto guardada no documento
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (AdjustedStock stock : event.adjusted()) {
+                documents.computeIfPresent(stock.productId(), (id, document) -> new Document(
+                        document.product().toBuilder().stock(stock.stock()).build(), document.name(), document.grams()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        Map<String, Integer> grams = new HashMap<>();
+        addGrams(grams, product.getName(), NAME_WEIGHT);
+        addGrams(grams, product.getBrand(), BRAND_WEIGHT);
+        addGrams(grams, product.getCategory(), CATEGORY_WEIGHT);
+        Document document = new Document(product.toBuilder().build(), normalize(product.getName()), grams);
+
+        lock.writeLock().lock();
+        try {
+            removePostings(product.getId());
+            documents.put(product.getId(), document);
+            grams.forEach((gram, weight) ->
+                    postings.computeIfAbsent(gram, g -> new HashMap<>()).put(product.getId(), weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removePostings(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ranqueia pela fração ponderada de trigramas da busca presentes no produto,
+    // com bônus quando o nome contém o texto buscado
+    public List<Product> search(String text) {
+        return hits(text).stream()
+                .sorted(Comparator.comparingDouble(Hit::score).reversed()
+                        .thenComparing(hit -> hit.document().product().getId()))
+                .limit(MAX_RESULTS)
+                .map(hit -> hit.document().product())
+                .toList();
+    }
+
+    // Todos os produtos que a busca encontraria, sem ordenar nem limitar (usado pelas facetas)
+    public List<Long> matchingIds(String text) {
+        return hits(text).stream().map(hit -> hit.document().product().getId()).toList();
+    }
+
+    private List<Hit> hits(String text) {
+        String query = normalize(text);
+        Set<String> queryGrams = trigrams(query);
+        if (queryGrams.isEmpty()) {
+            return List.of();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (String gram : queryGrams) {
+                Map<Long, Integer> posting = postings.get(gram);
+                if (posting != null) {
+                    posting.forEach((id, weight) -> scores.merge(id, weight, Integer::sum));
+                }
+            }
+
+            double maxScore = (double) queryGrams.size() * NAME_WEIGHT;
+            scores.forEach((id, score) -> {
+                Document document = documents.get(id);
+                double similarity = score / maxScore;
+                boolean nameMatch = document.name().contains(query);
+                if (similarity >= MIN_SIMILARITY || nameMatch) {
+                    hits.add(new Hit(document, similarity + (nameMatch ? 1.0 : 0.0)));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits;
+    }
+
+    private void removePostings(Long productId) {
+        Document previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : previous.grams().keySet()) {
+            Map<Long, Integer> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static void addGrams(Map<String, Integer> grams, String value, int weight) {
+        for (String gram : trigrams(normalize(value))) {
+            grams.merge(gram, weight, Math::max);
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    // Mesmo esquema do pg_trgm: cada palavra recebe dois espaços à esquerda e um à direita
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : SEPARATORS.split(normalized)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+}
@@ -1,44 +1,174 @@
 package com.jeferson.trajefino.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jeferson.trajefino.config.DataSourceRouting;
+import com.jeferson.trajefino.event.ProductChangedEvent;
 import com.jeferson.trajefino.exception.ResourceNotFoundException;
+import com.jeferson.trajefino.exception.ServiceUnavailableException;
 import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.CursorPage;
+import com.jeferson.trajefino.model.dto.ProductCacheStats;
 import com.jeferson.trajefino.model.dto.ProductDTO;
+import com.jeferson.trajefino.model.dto.ProductFacets;
 import com.jeferson.trajefino.repository.ProductRepository;
-import jakarta.transaction.Transactional;
+import com.jeferson.trajefino.repository.ProductStockRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
 
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+
     private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter productWriter;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex searchIndex;
+    private final ProductFacetIndex facetIndex;
+    private final BarcodeIndex barcodeIndex;
+    private final ProductCache productCache;
+    private final ChangeStamps changeStamps;
+    private final ActiveProductSnapshot activeSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductStockRepository productStockRepository,
+                          EntityManager entityManager,
+                          ObjectMapper objectMapper,
+                          ProductSearchIndex searchIndex,
+                          ProductFacetIndex facetIndex,
+                          BarcodeIndex barcodeIndex,
+                          ProductCache productCache,
+                          ChangeStamps changeStamps,
+                          ActiveProductSnapshot activeSnapshot,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productStockRepository = productStockRepository;
+        this.entityManager = entityManager;
+        this.productWriter = objectMapper.writerFor(Product.class);
+        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.barcodeIndex = barcodeIndex;
+        this.productCache = productCache;
+        this.changeStamps = changeStamps;
+        this.activeSnapshot = activeSnapshot;
+        this.eventPublisher = eventPublisher;
     }
 
-    public ResponseEntity<List<Product>> findAllProducts() {
-        return ResponseEntity.ok(productRepository.findAll());
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<Product>> findAllProducts(String cursor, Integer size) {
+        long afterId = PageCursor.decode(cursor);
+        return ResponseEntity.ok(PageCursor.toPage(
+                productRepository.findByIdGreaterThan(afterId, PageCursor.pageable(size)), Product::getId));
     }
 
-    public ResponseEntity<List<Product>> findActiveProducts() {
-        return ResponseEntity.ok(productRepository.findByActiveTrue());
+    public ResponseEntity<byte[]> findActiveProducts(String cursor, Integer size, String acceptEncoding,
+                                                     WebRequest request) throws IOException {
+        long afterId = PageCursor.decode(cursor);
+        // Tamanho padrão seguindo a cadeia de nextCursor: servido do snapshot pré-serializado
+        if (PageCursor.resolveSize(size) == PageCursor.DEFAULT_SIZE) {
+            ActiveProductSnapshot.Page page = activeSnapshot.page(afterId);
+            if (page != null) {
+                return page.toResponse(acceptEncoding, request);
+            }
+        }
+        CursorPage<Product> page = DataSourceRouting.onPrimary(() -> PageCursor.toPage(
+                productRepository.findByActiveTrueAndIdGreaterThan(afterId, PageCursor.pageable(size)), Product::getId));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(page));
     }
 
-    public ResponseEntity<Product> findProductById(Long id) {
-        Product product = productRepository.findById(id)
+    public ResponseEntity<Product> findProductById(Long id, WebRequest request) {
+        ResponseEntity<Product> notModified = ChangeStamps.notModified(request, changeStamps.product(id));
+        if (notModified != null) {
+            return notModified;
+        }
+        long invalidations = changeStamps.productInvalidations();
+        Product product = productCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
-        return ResponseEntity.ok(product);
+        return ChangeStamps.ok(changeStamps.productLoaded(product, invalidations), product);
+    }
+
+    public ResponseEntity<CursorPage<Product>> findProductsByCategory(String category, String cursor, Integer size, WebRequest request) {
+        long afterId = PageCursor.decode(cursor);
+        int resolvedSize = PageCursor.resolveSize(size);
+        ResponseEntity<CursorPage<Product>> notModified =
+                ChangeStamps.notModified(request, changeStamps.categoryPage(category, afterId, resolvedSize));
+        if (notModified != null) {
+            return notModified;
+        }
+        long invalidations = changeStamps.categoryInvalidations();
+        CursorPage<Product> page = productCache.findByCategory(category, afterId, resolvedSize);
+        // Página vazia pode ser de uma categoria inexistente: responde sem carimbo para não guardá-la
+        if (page.getItems().isEmpty()) {
+            return ResponseEntity.ok(page);
+        }
+        return ChangeStamps.ok(changeStamps.categoryPageLoaded(category, afterId, resolvedSize, invalidations), page);
     }
 
-    public ResponseEntity<List<Product>> findProductsByCategory(String category) {
-        return ResponseEntity.ok(productRepository.findByCategory(category));
+    public ResponseEntity<ProductCacheStats> getCacheStats() {
+        return ResponseEntity.ok(productCache.stats());
     }
 
     public ResponseEntity<List<Product>> searchProductsByName(String name) {
-        return ResponseEntity.ok(productRepository.findByNameContainingIgnoreCase(name));
+        // Enquanto o índice é montado na inicialização, cai para a busca no banco
+        if (!searchIndex.isReady()) {
+            return ResponseEntity.ok(productRepository.findByNameContainingIgnoreCase(name));
+        }
+        return ResponseEntity.ok(searchIndex.search(name));
+    }
+
+    public ResponseEntity<ProductFacets> findFacets(String text, String category) {
+        // Índices montados na inicialização; até lá não há como contar sem varrer a tabela
+        if (!facetIndex.isReady() || (StringUtils.hasText(text) && !searchIndex.isReady())) {
+            throw new ServiceUnavailableException("Facetas de produtos em carregamento, tente novamente", 1);
+        }
+        String categoryFilter = StringUtils.hasText(category) ? category : null;
+        if (!StringUtils.hasText(text)) {
+            return ResponseEntity.ok(facetIndex.facets(categoryFilter));
+        }
+        return ResponseEntity.ok(facetIndex.facets(searchIndex.matchingIds(text), categoryFilter));
+    }
+
+    // Escreve o catálogo como NDJSON (um produto por linha) direto no stream da resposta
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream outputStream) throws IOException {
+        try (Stream<Product> products = productRepository.streamAllOrderById()) {
+            Iterator<Product> iterator = products.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                outputStream.write(productWriter.writeValueAsBytes(product));
+                outputStream.write('\n');
+                // Desanexa do contexto de persistência para o heap não crescer com o catálogo
+                entityManager.detach(product);
+
+                written++;
+                if (written == 1 || written % EXPORT_FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
     }
 
     @Transactional
@@ -46,23 +176,12 @@ public class ProductService {
         validateProductDTO(productDTO, true);
 
         if (productDTO.getBarcode() != null && !productDTO.getBarcode().trim().isEmpty()) {
-            if (productRepository.existsByBarcode(productDTO.getBarcode())) {
+            if (barcodeInUse(productDTO.getBarcode())) {
                 throw new Exception("Código de barras já está em uso: " + productDTO.getBarcode());
             }
         }
 
-        Product product = Product.builder()
-                .name(productDTO.getName())
-                .description(productDTO.getDescription())
-                .price(productDTO.getPrice())
-                .stock(productDTO.getStock() != null ? productDTO.getStock() : 0)
-                .category(productDTO.getCategory())
-                .brand(productDTO.getBrand())
-                .barcode(productDTO.getBarcode())
-                .active(productDTO.getActive() != null ? productDTO.getActive() : true)
-                .build();
-
-        return ResponseEntity.ok(productRepository.save(product));
+        return ResponseEntity.ok(saveAndPublish(null, buildProduct(productDTO)));
     }
 
     @Transactional
@@ -71,30 +190,25 @@ public class ProductService {
 
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
+        Product previous = product.toBuilder().build();
 
         if (productDTO.getBarcode() != null && !productDTO.getBarcode().trim().isEmpty()) {
             if (!productDTO.getBarcode().equals(product.getBarcode()) &&
-                productRepository.existsByBarcode(productDTO.getBarcode())) {
+                barcodeInUse(productDTO.getBarcode())) {
                 throw new Exception("Código de barras já está em uso: " + productDTO.getBarcode());
             }
         }
 
-        product.setName(productDTO.getName());
-        product.setDescription(productDTO.getDescription());
-        product.setPrice(productDTO.getPrice());
-        product.setStock(productDTO.getStock());
-        product.setCategory(productDTO.getCategory());
-        product.setBrand(productDTO.getBrand());
-        product.setBarcode(productDTO.getBarcode());
-        product.setActive(productDTO.getActive() != null ? productDTO.getActive() : true);
+        applyFullUpdate(product, productDTO);
 
-        return ResponseEntity.ok(productRepository.save(product));
+        return ResponseEntity.ok(saveAndPublish(previous, product));
     }
 
     @Transactional
     public ResponseEntity<Product> partialUpdateProduct(Long id, ProductDTO productDTO) throws Exception {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
+        Product previous = product.toBuilder().build();
 
         // Atualiza apenas os campos que foram fornecidos (não nulos)
         if (productDTO.getName() != null && !productDTO.getName().trim().isEmpty()) {
@@ -123,7 +237,7 @@ public class ProductService {
         }
         if (productDTO.getBarcode() != null && !productDTO.getBarcode().trim().isEmpty()) {
             if (!productDTO.getBarcode().equals(product.getBarcode()) &&
-                productRepository.existsByBarcode(productDTO.getBarcode())) {
+                barcodeInUse(productDTO.getBarcode())) {
                 throw new Exception("Código de barras já está em uso: " + productDTO.getBarcode());
             }
             product.setBarcode(productDTO.getBarcode());
@@ -132,15 +246,17 @@ public class ProductService {
             product.setActive(productDTO.getActive());
         }
 
-        return ResponseEntity.ok(productRepository.save(product));
+        return ResponseEntity.ok(saveAndPublish(previous, product));
     }
 
     @Transactional
     public ResponseEntity<Void> deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
+        Product previous = product.toBuilder().build();
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, previous, null));
         return ResponseEntity.noContent().build();
     }
 
@@ -148,12 +264,58 @@ public class ProductService {
     public ResponseEntity<Product> deactivateProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
+        Product previous = product.toBuilder().build();
 
         product.setActive(false);
-        return ResponseEntity.ok(productRepository.save(product));
+        return ResponseEntity.ok(saveAndPublish(previous, product));
+    }
+
+    // O filtro de Bloom descarta sem consulta os códigos certamente livres; só os "talvez" vão ao banco
+    private boolean barcodeInUse(String barcode) {
+        return barcodeIndex.mightBeInUse(barcode) && productRepository.existsByBarcode(barcode);
+    }
+
+    private Product saveAndPublish(Product previous, Product product) {
+        Product saved = productRepository.save(product);
+        if (previous != null && stockChanged(previous, saved)) {
+            productStockRepository.setStocks(Map.of(saved.getId(), saved.getStock()));
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), previous, saved));
+        return saved;
+    }
+
+    static Product buildProduct(ProductDTO productDTO) {
+        return Product.builder()
+                .name(productDTO.getName())
+                .description(productDTO.getDescription())
+                .price(productDTO.getPrice())
+                .stock(productDTO.getStock() != null ? productDTO.getStock() : 0)
+                .category(productDTO.getCategory())
+                .brand(productDTO.getBrand())
+                .barcode(productDTO.getBarcode())
+                .active(productDTO.getActive() != null ? productDTO.getActive() : true)
+                .build();
+    }
+
+    // O stock fica fora do UPDATE da entidade e só é gravado quando a edição de fato o altera
+    static boolean stockChanged(Product previous, Product product) {
+        return !Objects.equals(previous.getStock(), product.getStock());
+    }
+
+    static void applyFullUpdate(Product product, ProductDTO productDTO) {
+        product.setName(productDTO.getName());
+        product.setDescription(productDTO.getDescription());
+        product.setPrice(productDTO.getPrice());
+        if (productDTO.getStock() != null) {
+            product.setStock(productDTO.getStock());
+        }
+        product.setCategory(productDTO.getCategory());
+        product.setBrand(productDTO.getBrand());
+        product.setBarcode(productDTO.getBarcode());
+        product.setActive(productDTO.getActive() != null ? productDTO.getActive() : true);
     }
 
-    private void validateProductDTO(ProductDTO productDTO, boolean isRequired) throws Exception {
+    static void validateProductDTO(ProductDTO productDTO, boolean isRequired) throws Exception {
         if (isRequired) {
             if (productDTO.getName() == null || productDTO.getName().trim().isEmpty()) {
                 throw new Exception("Nome do produto é obrigatório");
@@ -0,0 +1,108 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.event.ProductStockChangedEvent;
+import com.jeferson.trajefino.exception.BadRequestException;
+import com.jeferson.trajefino.exception.ConflictException;
+import com.jeferson.trajefino.exception.ResourceNotFoundException;
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+import com.jeferson.trajefino.model.dto.StockAdjustmentDTO;
+import com.jeferson.trajefino.model.dto.StockAdjustmentResult;
+import com.jeferson.trajefino.repository.ProductStockRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductStockService {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final ProductStockRepository productStockRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductStockService(ProductStockRepository productStockRepository,
+                               ApplicationEventPublisher eventPublisher) {
+        this.productStockRepository = productStockRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public ResponseEntity<StockAdjustmentResult> adjustStock(Long id, StockAdjustmentDTO adjustmentDTO) {
+        if (adjustmentDTO == null || adjustmentDTO.getDelta() == null) {
+            throw new BadRequestException("Delta do ajuste de estoque é obrigatório");
+        }
+
+        List<AdjustedStock> adjusted = productStockRepository.adjust(Map.of(id, adjustmentDTO.getDelta()));
+        if (adjusted.isEmpty()) {
+            // Só consulta o motivo quando o UPDATE não afetou nenhuma linha
+            List<AdjustedStock> current = productStockRepository.findStocks(List.of(id));
+            if (current.isEmpty()) {
+                throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+            }
+            if ((long) current.get(0).stock() + adjustmentDTO.getDelta() > Integer.MAX_VALUE) {
+                throw new BadRequestException("Ajuste excede o limite de estoque para o produto com ID: " + id);
+            }
+            throw new ConflictException("Estoque insuficiente para o produto com ID: " + id);
+        }
+
+        eventPublisher.publishEvent(new ProductStockChangedEvent(adjusted));
+        return ResponseEntity.ok(StockAdjustmentResult.builder()
+                .productId(id)
+                .delta(adjustmentDTO.getDelta())
+                .stock(adjusted.get(0).stock())
+                .applied(true)
+                .build());
+    }
+
+    @Transactional
+    public ResponseEntity<List<StockAdjustmentResult>> adjustStocks(List<StockAdjustmentDTO> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            throw new BadRequestException("O lote deve conter ao menos um ajuste");
+        }
+        if (adjustments.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("O lote deve conter no máximo " + MAX_BATCH_SIZE + " ajustes");
+        }
+
+        // Soma os deltas do mesmo produto e ordena por ID para todos os lotes travarem as linhas na mesma ordem
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (StockAdjustmentDTO adjustment : adjustments) {
+            if (adjustment == null || adjustment.getProductId() == null || adjustment.getDelta() == null) {
+                throw new BadRequestException("Cada ajuste deve informar productId e delta");
+            }
+            try {
+                deltas.merge(adjustment.getProductId(), adjustment.getDelta(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new BadRequestException("Soma dos deltas excede o limite para o produto com ID: " + adjustment.getProductId());
+            }
+        }
+
+        List<AdjustedStock> adjusted = productStockRepository.adjust(deltas);
+        Map<Long, AdjustedStock> byId = adjusted.stream()
+                .collect(Collectors.toMap(AdjustedStock::productId, Function.identity()));
+
+        List<StockAdjustmentResult> results = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> {
+            AdjustedStock stock = byId.get(productId);
+            results.add(StockAdjustmentResult.builder()
+                    .productId(productId)
+                    .delta(delta)
+                    .stock(stock != null ? stock.stock() : null)
+                    .applied(stock != null)
+                    .message(stock != null ? null : "Produto não encontrado, estoque insuficiente ou acima do limite")
+                    .build());
+        });
+
+        if (!adjusted.isEmpty()) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(adjusted));
+        }
+        return ResponseEntity.ok(results);
+    }
+}
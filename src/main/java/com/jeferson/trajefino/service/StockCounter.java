@@ -0,0 +1,70 @@
+package com.jeferson.trajefino.service;
+
+/**
+ * Contador de estoque de um produto. Cada produto tem o seu próprio monitor,
+ * então reservas de produtos diferentes nunca disputam o mesmo lock.
+ * disponível = base (estoque conhecido no banco) - pending (confirmado e ainda não gravado) - held (reservado)
+ * Fechado (produto inativo ou removido), não aceita reservas nem confirmações; só liberações.
+ */
+final class StockCounter {
+
+    private int base;
+    private int pending;
+    private int held;
+    private boolean closed;
+
+    StockCounter(int base) {
+        this.base = base;
+    }
+
+    synchronized boolean tryReserve(int quantity) {
+        if (closed || available() < quantity) {
+            return false;
+        }
+        held += quantity;
+        return true;
+    }
+
+    synchronized void release(int quantity) {
+        held -= quantity;
+    }
+
+    // false se o contador foi fechado: a quantidade reservada é liberada em vez de confirmada
+    synchronized boolean confirm(int quantity) {
+        held -= quantity;
+        if (closed) {
+            return false;
+        }
+        pending += quantity;
+        return true;
+    }
+
+    // Chamado após o write-behind; stock é o valor devolvido pelo banco (null se o ajuste não foi aplicado)
+    synchronized void flushed(int quantity, Integer stock) {
+        pending -= quantity;
+        if (stock != null) {
+            base = stock;
+        }
+    }
+
+    // Estoque alterado fora das reservas (edição do produto ou ajuste direto)
+    synchronized void resync(int stock) {
+        base = stock;
+    }
+
+    synchronized void close() {
+        closed = true;
+    }
+
+    synchronized void reopen() {
+        closed = false;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    synchronized int available() {
+        return base - pending - held;
+    }
+}
@@ -0,0 +1,159 @@
+package com.jeferson.trajefino.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Log de recuperação das confirmações ainda não gravadas no banco. Cada linha é "productId,quantidade"
+ * e vai para o disco (fsync) antes de a confirmação ser respondida.
+ * A cada flush o arquivo corrente é renomeado para batch-{id}.log e só é apagado após o commit.
+ * Baixas que o banco recusou ficam em rejected-{id}.log para conciliação manual.
+ * Usa ReentrantLock em vez de synchronized: a escrita em disco dentro de um monitor prenderia a
+ * virtual thread ao carrier.
+ */
+final class StockReservationJournal {
+
+    private static final String CURRENT = "current.log";
+    private static final String BATCH_PREFIX = "batch-";
+    private static final String BATCH_SUFFIX = ".log";
+    private static final String REJECTED_PREFIX = "rejected-";
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+
+    StockReservationJournal(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório do journal de estoque", e);
+        }
+    }
+
+    void append(Long productId, int quantity) {
+        lock.lock();
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(directory.resolve(CURRENT),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer line = ByteBuffer.wrap((productId + "," + quantity + "\n").getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            // Sem o fsync uma confirmação já respondida ao cliente se perderia numa queda do host
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o journal de estoque", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Fecha o arquivo corrente e o renomeia para o lote informado
+    Path rotate(String batchId) {
+        lock.lock();
+        try {
+            closeWriter();
+            Path current = directory.resolve(CURRENT);
+            Path batch = directory.resolve(BATCH_PREFIX + batchId + BATCH_SUFFIX);
+            if (Files.exists(current)) {
+                Files.move(current, batch);
+            }
+            return batch;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao rotacionar o journal de estoque", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Baixas confirmadas que o banco recusou; não são reaplicadas na recuperação
+    void recordRejected(String batchId, Map<Long, Integer> quantities) {
+        StringBuilder lines = new StringBuilder();
+        quantities.forEach((productId, quantity) -> lines.append(productId).append(',').append(quantity).append('\n'));
+        try {
+            Files.writeString(directory.resolve(REJECTED_PREFIX + batchId + BATCH_SUFFIX), lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao registrar baixas recusadas no journal de estoque", e);
+        }
+    }
+
+    void delete(Path batch) {
+        try {
+            Files.deleteIfExists(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao remover o lote do journal de estoque", e);
+        }
+    }
+
+    // Lotes deixados por uma execução anterior, incluindo o arquivo corrente
+    List<Path> pendingBatches(String newBatchId) {
+        lock.lock();
+        try {
+            rotate(newBatchId);
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(BATCH_PREFIX) && name.endsWith(BATCH_SUFFIX);
+                }).sorted().toList();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao listar o journal de estoque", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static String batchId(Path batch) {
+        String name = batch.getFileName().toString();
+        return name.substring(BATCH_PREFIX.length(), name.length() - BATCH_SUFFIX.length());
+    }
+
+    // Soma as quantidades confirmadas por produto
+    static Map<Long, Integer> read(Path batch) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        try (Stream<String> lines = Files.lines(batch, StandardCharsets.UTF_8)) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> {
+                String[] parts = line.split(",");
+                quantities.merge(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), Integer::sum);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o journal de estoque", e);
+        } catch (RuntimeException e) {
+            // Última linha truncada por queda do processo: o que foi lido até ela é mantido
+        }
+        return quantities;
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            closeWriter();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao fechar o journal de estoque", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
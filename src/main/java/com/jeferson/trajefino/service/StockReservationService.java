@@ -0,0 +1,369 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.event.ProductStockChangedEvent;
+import com.jeferson.trajefino.exception.BadRequestException;
+import com.jeferson.trajefino.exception.ConflictException;
+import com.jeferson.trajefino.exception.ResourceNotFoundException;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+import com.jeferson.trajefino.model.dto.ReservationDTO;
+import com.jeferson.trajefino.model.dto.ReservationRequestDTO;
+import com.jeferson.trajefino.model.enums.ReservationStatus;
+import com.jeferson.trajefino.repository.ProductRepository;
+import com.jeferson.trajefino.repository.ProductStockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reservas de estoque em memória. Reservar, confirmar e liberar só tocam contadores por produto;
+ * as baixas confirmadas são gravadas em product.stock em lotes periódicos (write-behind),
+ * com um journal local para recuperar o que não chegou ao banco antes de uma queda.
+ * Os contadores pertencem a esta instância: com mais de uma réplica, as reservas de um produto
+ * devem ser roteadas sempre para a mesma instância.
+ */
+@Slf4j
+@Service
+public class StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationJournal journal;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final Counter rejectedUnits;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    // Confirmações desde o último flush; trocado inteiro na rotação do journal
+    private volatile Map<Long, Integer> unflushed = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final Deque<Batch> failedBatches = new ArrayDeque<>();
+    // Lock explícito: a reaplicação faz JDBC e, dentro de um synchronized, prenderia a virtual thread
+    private final ReentrantLock failedBatchesLock = new ReentrantLock();
+
+    private record Reservation(String id, Long productId, int quantity, Instant expiresAt) {
+    }
+
+    private record Batch(String id, Map<Long, Integer> quantities, Path file) {
+    }
+
+    public StockReservationService(ProductRepository productRepository,
+                                   ProductStockRepository productStockRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${stock.reservation.journal-dir:data/stock-journal}") Path journalDir,
+                                   @Value("${stock.reservation.default-ttl:10m}") Duration defaultTtl,
+                                   @Value("${stock.reservation.max-ttl:1h}") Duration maxTtl,
+                                   MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.productStockRepository = productStockRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = new StockReservationJournal(journalDir);
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        // Unidades confirmadas ao cliente que o banco recusou: qualquer valor acima de zero pede conciliação
+        this.rejectedUnits = Counter.builder("stock.reservation.rejected")
+                .baseUnit("units")
+                .register(meterRegistry);
+    }
+
+    // Reaplica lotes que uma execução anterior não conseguiu gravar, antes de aceitar reservas
+    @PostConstruct
+    public void recover() {
+        for (Path file : journal.pendingBatches(UUID.randomUUID().toString())) {
+            String batchId = StockReservationJournal.batchId(file);
+            if (productStockRepository.isFlushApplied(batchId)) {
+                journal.delete(file);
+                continue;
+            }
+            Map<Long, Integer> quantities = StockReservationJournal.read(file);
+            if (!quantities.isEmpty()) {
+                log.info("Recuperando lote {} do journal de estoque com {} produtos", batchId, quantities.size());
+                apply(new Batch(batchId, quantities, file));
+            }
+            journal.delete(file);
+        }
+    }
+
+    public ResponseEntity<ReservationDTO> reserve(ReservationRequestDTO requestDTO) {
+        if (requestDTO == null || requestDTO.getProductId() == null) {
+            throw new BadRequestException("ID do produto é obrigatório");
+        }
+        if (requestDTO.getQuantity() == null || requestDTO.getQuantity() <= 0) {
+            throw new BadRequestException("Quantidade deve ser maior que zero");
+        }
+        Duration ttl = requestDTO.getTtlSeconds() != null ? Duration.ofSeconds(requestDTO.getTtlSeconds()) : defaultTtl;
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new BadRequestException("TTL da reserva deve estar entre 1 e " + maxTtl.toSeconds() + " segundos");
+        }
+
+        StockCounter counter = counter(requestDTO.getProductId());
+        if (!counter.tryReserve(requestDTO.getQuantity())) {
+            if (counter.isClosed()) {
+                throw new ConflictException("Produto inativo ou removido não pode ser reservado: " + requestDTO.getProductId());
+            }
+            throw new ConflictException("Estoque insuficiente para o produto com ID: " + requestDTO.getProductId());
+        }
+
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), requestDTO.getProductId(),
+                requestDTO.getQuantity(), Instant.now().plus(ttl));
+        reservations.put(reservation.id(), reservation);
+        return ResponseEntity.ok(toDTO(reservation, ReservationStatus.HELD));
+    }
+
+    public ResponseEntity<ReservationDTO> confirm(String reservationId) {
+        Reservation reservation = claim(reservationId);
+        StockCounter counter = counters.get(reservation.productId());
+        rotationLock.readLock().lock();
+        try {
+            // Produto desativado ou removido depois da reserva: o banco recusaria a baixa no flush
+            if (!counter.confirm(reservation.quantity())) {
+                throw new ConflictException("Produto inativo ou removido, reserva liberada: " + reservation.productId());
+            }
+            try {
+                journal.append(reservation.productId(), reservation.quantity());
+            } catch (RuntimeException e) {
+                counter.flushed(reservation.quantity(), null);
+                throw e;
+            }
+            unflushed.merge(reservation.productId(), reservation.quantity(), Integer::sum);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        return ResponseEntity.ok(toDTO(reservation, ReservationStatus.CONFIRMED));
+    }
+
+    public ResponseEntity<ReservationDTO> release(String reservationId) {
+        Reservation reservation = claim(reservationId);
+        counters.get(reservation.productId()).release(reservation.quantity());
+        return ResponseEntity.ok(toDTO(reservation, ReservationStatus.RELEASED));
+    }
+
+    @Scheduled(fixedDelayString = "${stock.reservation.expiration-interval:1s}")
+    public void releaseExpired() {
+        Instant now = Instant.now();
+        reservations.values().forEach(reservation -> {
+            // remove(key, value) garante que confirmação e expiração nunca processam a mesma reserva
+            if (reservation.expiresAt().isBefore(now) && reservations.remove(reservation.id(), reservation)) {
+                counters.get(reservation.productId()).release(reservation.quantity());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${stock.reservation.flush-interval:1s}")
+    public void flush() {
+        retryFailedBatches();
+
+        Batch batch;
+        rotationLock.writeLock().lock();
+        try {
+            if (unflushed.isEmpty()) {
+                return;
+            }
+            String batchId = UUID.randomUUID().toString();
+            batch = new Batch(batchId, unflushed, journal.rotate(batchId));
+            unflushed = new ConcurrentHashMap<>();
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+
+        try {
+            apply(batch);
+            journal.delete(batch.file());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar lote {} de estoque, nova tentativa no próximo ciclo", batch.id(), e);
+            failedBatchesLock.lock();
+            try {
+                failedBatches.addLast(batch);
+            } finally {
+                failedBatchesLock.unlock();
+            }
+        }
+    }
+
+    // Estoque alterado fora das reservas: realinha a base do contador com o banco.
+    // Produto removido ou inativo fecha o contador, que é mantido para as reservas ainda poderem ser liberadas
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        StockCounter counter = counters.get(event.productId());
+        if (event.isDeleted()) {
+            if (counter != null) {
+                counter.close();
+            }
+            return;
+        }
+        if (counter != null) {
+            if (Boolean.TRUE.equals(event.product().getActive())) {
+                counter.reopen();
+            } else {
+                counter.close();
+            }
+        }
+        // Sem mudança de estoque a escrita não gravou a coluna: o valor do evento pode estar velho
+        if (event.previous() != null && Objects.equals(event.previous().getStock(), event.product().getStock())) {
+            return;
+        }
+        if (counter != null && event.product().getStock() != null) {
+            counter.resync(event.product().getStock());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        for (AdjustedStock stock : event.adjusted()) {
+            StockCounter counter = counters.get(stock.productId());
+            if (counter != null) {
+                counter.resync(stock.stock());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private void retryFailedBatches() {
+        failedBatchesLock.lock();
+        try {
+            while (!failedBatches.isEmpty()) {
+                Batch batch = failedBatches.peekFirst();
+                apply(batch);
+                journal.delete(batch.file());
+                failedBatches.removeFirst();
+            }
+        } finally {
+            failedBatchesLock.unlock();
+        }
+    }
+
+    // Um único UPDATE em lote e o registro do lote na mesma transação
+    private void apply(Batch batch) {
+        Map<Long, Integer> deltas = new TreeMap<>();
+        batch.quantities().forEach((productId, quantity) -> deltas.put(productId, -quantity));
+
+        // null: uma tentativa anterior já gravou o lote, só a resposta do commit se perdeu
+        List<AdjustedStock> adjusted = transactionTemplate.execute(status -> {
+            if (productStockRepository.isFlushApplied(batch.id())) {
+                return null;
+            }
+            List<AdjustedStock> rows = productStockRepository.adjust(deltas);
+            productStockRepository.recordFlush(batch.id());
+            return rows;
+        });
+        boolean replayed = adjusted == null;
+
+        Map<Long, AdjustedStock> byId = new HashMap<>();
+        if (!replayed) {
+            adjusted.forEach(stock -> byId.put(stock.productId(), stock));
+        }
+        Map<Long, Integer> rejected = new TreeMap<>();
+        if (!replayed) {
+            batch.quantities().forEach((productId, quantity) -> {
+                if (!byId.containsKey(productId)) {
+                    rejected.put(productId, quantity);
+                }
+            });
+        }
+
+        // Itens sem linha no RETURNING (recusados ou de um lote reaplicado) realinham a base com o banco
+        List<Long> missing = batch.quantities().keySet().stream()
+                .filter(productId -> !byId.containsKey(productId))
+                .toList();
+        List<AdjustedStock> current = missing.isEmpty() ? List.of() : productStockRepository.findStocks(missing);
+        current.forEach(stock -> byId.put(stock.productId(), stock));
+
+        batch.quantities().forEach((productId, quantity) -> {
+            StockCounter counter = counters.get(productId);
+            if (counter != null) {
+                AdjustedStock stock = byId.get(productId);
+                counter.flushed(quantity, stock != null ? stock.stock() : null);
+            }
+        });
+
+        if (!rejected.isEmpty()) {
+            rejected.forEach((productId, quantity) -> log.error(
+                    "Baixa confirmada de {} unidades do produto {} recusada pelo banco (estoque insuficiente ou produto removido); registrada em rejected-{}.log",
+                    quantity, productId, batch.id()));
+            rejectedUnits.increment(rejected.values().stream().mapToInt(Integer::intValue).sum());
+            journal.recordRejected(batch.id(), rejected);
+        }
+
+        List<AdjustedStock> changed = replayed ? current : adjusted;
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(changed));
+        }
+    }
+
+    private StockCounter counter(Long productId) {
+        StockCounter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + productId));
+        if (!Boolean.TRUE.equals(product.getActive())) {
+            throw new ConflictException("Produto inativo não pode ser reservado: " + productId);
+        }
+        return counters.computeIfAbsent(productId, id -> new StockCounter(product.getStock()));
+    }
+
+    private Reservation claim(String reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            throw new ResourceNotFoundException("Reserva não encontrada ou expirada: " + reservationId);
+        }
+        if (reservation.expiresAt().isBefore(Instant.now())) {
+            counters.get(reservation.productId()).release(reservation.quantity());
+            throw new ConflictException("Reserva expirada: " + reservationId);
+        }
+        return reservation;
+    }
+
+    private static ReservationDTO toDTO(Reservation reservation, ReservationStatus status) {
+        return ReservationDTO.builder()
+                .id(reservation.id())
+                .productId(reservation.productId())
+                .quantity(reservation.quantity())
+                .status(status)
+                .expiresAt(LocalDateTime.ofInstant(reservation.expiresAt(), ZoneId.systemDefault()))
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.config.RequestStatistics;
+import com.jeferson.trajefino.exception.ResourceNotFoundException;
+import com.jeferson.trajefino.exception.ServiceUnavailableException;
+import com.jeferson.trajefino.model.dto.AddressSummaryDTO;
+import com.jeferson.trajefino.model.dto.UserProfileDTO;
+import com.jeferson.trajefino.model.dto.UserSummaryDTO;
+import com.jeferson.trajefino.repository.AddressRepository;
+import com.jeferson.trajefino.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Monta o perfil do cliente disparando as consultas em paralelo, cada uma em uma virtual thread.
+ * O escopo é estruturado: nenhuma subtarefa sobrevive à requisição e a falha de uma cancela as demais.
+ */
+@Service
+public class UserProfileService {
+
+    private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
+    private final Duration timeout;
+
+    public UserProfileService(UserRepository userRepository,
+                              AddressRepository addressRepository,
+                              @Value("${user.profile.timeout:5s}") Duration timeout) {
+        this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.timeout = timeout;
+    }
+
+    public ResponseEntity<UserProfileDTO> findProfile(long userId) {
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<UserSummaryDTO>> user = scope.submit(
+                    RequestStatistics.propagate(() -> userRepository.findSummaryById(userId)));
+            Future<List<AddressSummaryDTO>> addresses = scope.submit(
+                    RequestStatistics.propagate(() -> addressRepository.findSummariesByUserIdIn(List.of(userId))));
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            try {
+                UserSummaryDTO summary = await(user, deadline)
+                        .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com ID: " + userId));
+                List<AddressSummaryDTO> userAddresses = await(addresses, deadline);
+
+                // O padrão sai da própria lista, sem uma terceira consulta
+                AddressSummaryDTO defaultAddress = userAddresses.stream()
+                        .filter(address -> Boolean.TRUE.equals(address.isDefault()))
+                        .findFirst()
+                        .orElse(null);
+                return ResponseEntity.ok(new UserProfileDTO(summary, userAddresses, defaultAddress));
+            } catch (RuntimeException e) {
+                // Encerra o escopo: as consultas ainda pendentes são interrompidas antes do close
+                scope.shutdownNow();
+                throw e;
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Tempo esgotado ao montar o perfil do usuário", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Montagem do perfil do usuário interrompida", 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,31 +1,61 @@
 package com.jeferson.trajefino.service;
 
+import com.jeferson.trajefino.event.UserSecurityChangedEvent;
 import com.jeferson.trajefino.model.User;
+import com.jeferson.trajefino.model.dto.AddressSummaryDTO;
+import com.jeferson.trajefino.model.dto.CursorPage;
 import com.jeferson.trajefino.model.dto.UserDTO;
+import com.jeferson.trajefino.model.dto.UserSummaryDTO;
 import com.jeferson.trajefino.model.enums.UserRole;
+import com.jeferson.trajefino.repository.AddressRepository;
 import com.jeferson.trajefino.repository.UserRepository;
 import com.jeferson.trajefino.exception.ResourceNotFoundException;
-import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository,
+                       AddressRepository addressRepository,
+                       PasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
-    public ResponseEntity<List<User>> findAllUsers(){
-        return ResponseEntity.ok(userRepository.findAll());
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<UserSummaryDTO>> findAllUsers(String cursor, Integer size, boolean includeAddresses){
+        long afterId = PageCursor.decode(cursor);
+        CursorPage<UserSummaryDTO> page = PageCursor.toPage(
+                userRepository.findSummariesAfter(afterId, PageCursor.limit(size)), UserSummaryDTO::id);
+
+        // Endereços de toda a página em uma única consulta IN, nunca um SELECT por usuário
+        if (includeAddresses && !page.getItems().isEmpty()) {
+            Map<Long, List<AddressSummaryDTO>> addressesByUser = addressRepository
+                    .findSummariesByUserIdIn(page.getItems().stream().map(UserSummaryDTO::id).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(AddressSummaryDTO::userId));
+            page.setItems(page.getItems().stream()
+                    .map(user -> user.withAddresses(addressesByUser.getOrDefault(user.id(), List.of())))
+                    .toList());
+        }
+        return ResponseEntity.ok(page);
     }
 
     public ResponseEntity<User> editUser(UserDTO userDto, long id) throws Exception {
@@ -70,8 +100,11 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com ID: " + id));
 
+        boolean securityChanged = false;
+
         // Atualiza apenas os campos que foram fornecidos (não nulos)
         if (userDTO.getUserName() != null && !userDTO.getUserName().trim().isEmpty()) {
+            securityChanged |= !userDTO.getUserName().equals(user.getUsername());
             user.setUserName(userDTO.getUserName());
         }
         if (userDTO.getName() != null && !userDTO.getName().trim().isEmpty()) {
@@ -85,11 +118,19 @@ public class UserService {
         }
         if (userDTO.getPassword() != null && !userDTO.getPassword().trim().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            securityChanged = true;
         }
         if (userDTO.getRole() != null) {
+            securityChanged |= userDTO.getRole() != user.getRole();
             user.setRole(userDTO.getRole());
         }
 
+        // Invalida os tokens já emitidos para o usuário
+        if (securityChanged) {
+            user.setSecurityVersion(user.getSecurityVersion() + 1);
+            eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getId()));
+        }
+
         return ResponseEntity.ok(userRepository.save(user));
     }
 
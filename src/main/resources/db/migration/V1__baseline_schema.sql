@@ -0,0 +1,80 @@
+-- Esquema base, equivalente ao que o ddl-auto update e os antigos scripts db/*.sql criavam.
+-- Idempotente: em bancos já existentes (baseline 0) só acrescenta o que faltar.
+
+CREATE TABLE IF NOT EXISTS trajefino."user" (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name             VARCHAR(255),
+    user_name        VARCHAR(255) NOT NULL,
+    password         VARCHAR(255) NOT NULL,
+    full_name        VARCHAR(255),
+    birth_date       VARCHAR(255),
+    role             VARCHAR(255) NOT NULL
+        CHECK (role IN ('ROLE_ADMIN', 'ROLE_OPERATOR', 'ROLE_CUSTOMER')),
+    created_at       TIMESTAMP(6),
+    enabled          BOOLEAN      NOT NULL,
+    security_version BIGINT       NOT NULL DEFAULT 0,
+    -- Também é o índice de user(user_name) usado no login
+    CONSTRAINT uk_user_user_name UNIQUE (user_name)
+);
+
+ALTER TABLE trajefino."user" ADD COLUMN IF NOT EXISTS security_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS trajefino.address (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    street       VARCHAR(200) NOT NULL,
+    number       VARCHAR(20),
+    complement   VARCHAR(100),
+    neighborhood VARCHAR(100),
+    city         VARCHAR(100) NOT NULL,
+    state        VARCHAR(2)   NOT NULL,
+    zip_code     VARCHAR(20)  NOT NULL,
+    country      VARCHAR(100),
+    address_type VARCHAR(50),
+    is_default   BOOLEAN,
+    user_id      BIGINT       NOT NULL REFERENCES trajefino."user" (id),
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6)
+);
+
+-- IDs vêm de product_seq (allocationSize = 50); bancos antigos mantêm a coluna IDENTITY, que é ignorada
+CREATE TABLE IF NOT EXISTS trajefino.product (
+    id          BIGINT PRIMARY KEY,
+    name        VARCHAR(200)   NOT NULL,
+    description TEXT,
+    price       NUMERIC(10, 2) NOT NULL,
+    stock       INTEGER        NOT NULL,
+    category    VARCHAR(100),
+    brand       VARCHAR(100),
+    barcode     VARCHAR(50),
+    active      BOOLEAN,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uk_product_barcode UNIQUE (barcode)
+);
+
+CREATE SEQUENCE IF NOT EXISTS trajefino.product_seq START WITH 1 INCREMENT BY 50;
+
+-- Nunca volta a sequence para trás
+SELECT setval('trajefino.product_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 1) FROM trajefino.product),
+                       (SELECT last_value FROM trajefino.product_seq)));
+
+-- Lotes do write-behind de reservas de estoque já gravados em product.stock
+CREATE TABLE IF NOT EXISTS trajefino.stock_flush_log (
+    batch_id   VARCHAR(36) PRIMARY KEY,
+    applied_at TIMESTAMP   NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+-- No máximo um endereço padrão por usuário; antes do índice mantém só o padrão mais recente de cada um
+UPDATE trajefino.address a
+   SET is_default = false
+ WHERE a.is_default
+   AND EXISTS (SELECT 1
+                 FROM trajefino.address b
+                WHERE b.user_id = a.user_id
+                  AND b.is_default
+                  AND b.id > a.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_address_user_default
+    ON trajefino.address (user_id)
+    WHERE is_default;
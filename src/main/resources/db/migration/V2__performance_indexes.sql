@@ -0,0 +1,30 @@
+-- Índices dos caminhos quentes. QueryPlanTest roda EXPLAIN em todas as consultas dos repositórios
+-- e falha se alguma cair em Seq Scan.
+
+-- findByCategory e a página por categoria (category = ? AND id > ? ORDER BY id)
+CREATE INDEX IF NOT EXISTS ix_product_category_id
+    ON trajefino.product (category, id);
+
+-- Parcial: só produtos ativos. Atende findByActiveTrue e /product/active (active AND id > ? ORDER BY id)
+CREATE INDEX IF NOT EXISTS ix_product_active_id
+    ON trajefino.product (id)
+    WHERE active;
+
+-- findByUserId, findByUserIdAndAddressType e findSummariesByUserIdIn (user_id é o prefixo),
+-- por isso não há um índice separado só em user_id
+CREATE INDEX IF NOT EXISTS ix_address_user_type
+    ON trajefino.address (user_id, address_type);
+
+-- Busca por trecho do nome (lower(name) LIKE '%termo%'). pg_trgm é trusted desde o PostgreSQL 13;
+-- se não estiver disponível no servidor a migração segue sem o índice
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_available_extensions WHERE name = 'pg_trgm') THEN
+        CREATE EXTENSION IF NOT EXISTS pg_trgm;
+        EXECUTE 'CREATE INDEX IF NOT EXISTS ix_product_name_trgm
+                     ON trajefino.product USING gin (lower(name) gin_trgm_ops)';
+    ELSE
+        RAISE WARNING 'pg_trgm indisponível: ix_product_name_trgm não foi criado';
+    END IF;
+END
+$$;
@@ -0,0 +1,4 @@
+-- GET /product/query ordenado por preço: o keyset (price, id) vira um Index Scan com LIMIT.
+-- Sem índice em stock de propósito: o estoque muda a cada reserva e o índice tiraria os UPDATEs do HOT
+CREATE INDEX IF NOT EXISTS ix_product_price_id
+    ON trajefino.product (price, id);
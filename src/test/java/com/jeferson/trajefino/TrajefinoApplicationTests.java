@@ -1,13 +1,43 @@
 package com.jeferson.trajefino;
 
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
 
 @SpringBootTest
 class TrajefinoApplicationTests {
 
+	private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) throws IOException {
+		registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+		registry.add("spring.datasource.password", () -> "postgres");
+		registry.add("stock.reservation.journal-dir", Files.createTempDirectory("trajefino-stock-journal")::toString);
+	}
+
+	@AfterAll
+	static void stopPostgres() throws IOException {
+		POSTGRES.close();
+	}
+
 	@Test
 	void contextLoads() {
 	}
 
+	private static EmbeddedPostgres startPostgres() {
+		try {
+			return EmbeddedPostgres.builder().start();
+		} catch (IOException e) {
+			throw new IllegalStateException("Não foi possível iniciar o PostgreSQL embarcado", e);
+		}
+	}
+
 }
@@ -0,0 +1,106 @@
+package com.jeferson.trajefino.repository;
+
+import com.jeferson.trajefino.model.Product;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProductStockRepository.class)
+class ProductStockRepositoryTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void adjustBeyondIntegerLimitIsNotApplied() {
+        Long id = persist(Integer.MAX_VALUE - 1);
+
+        assertThat(productStockRepository.adjust(Map.of(id, 2))).isEmpty();
+        assertThat(stockInDatabase(id)).isEqualTo(Integer.MAX_VALUE - 1);
+        assertThat(productStockRepository.adjust(Map.of(id, 1))).singleElement()
+                .satisfies(stock -> assertThat(stock.stock()).isEqualTo(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void entityUpdateKeepsConcurrentAdjustment() {
+        Long id = persist(10);
+        Product product = productRepository.findById(id).orElseThrow();
+
+        productStockRepository.adjust(Map.of(id, -3));
+        product.setName("Renomeado");
+        entityManager.flush();
+
+        assertThat(stockInDatabase(id)).isEqualTo(7);
+    }
+
+    @Test
+    void setStocksWritesExplicitValue() {
+        Long id = persist(10);
+
+        productStockRepository.setStocks(Map.of(id, 42));
+
+        assertThat(stockInDatabase(id)).isEqualTo(42);
+    }
+
+    private Long persist(int stock) {
+        Product product = productRepository.saveAndFlush(Product.builder()
+                .name("Produto")
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .category("Camisas")
+                .active(true)
+                .build());
+        return product.getId();
+    }
+
+    private Integer stockInDatabase(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM trajefino.product WHERE id = ?", Integer.class, id);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível iniciar o PostgreSQL embarcado", e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.jeferson.trajefino.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roda EXPLAIN em cada consulta declarada nos repositórios, com os mesmos parâmetros da execução real,
+ * contra o esquema criado pelas migrações. Com enable_seqscan = off o planejador só escolhe Seq Scan
+ * quando nenhum índice atende a consulta, então qualquer Seq Scan no plano é um índice faltando.
+ * Cada consulta também declara o índice que deve usar: cair em outro índice (a PK no lugar de um
+ * índice composto, por exemplo) passaria sem Seq Scan, mas deixaria o predicado como filtro.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final List<String> PLANS = new CopyOnWriteArrayList<>();
+    private static final AtomicBoolean SEEDED = new AtomicBoolean();
+
+    // Catálogo com 10% de inativos; numa tabela vazia o planejador usa estimativas padrão e o plano não diz nada
+    private static final String SEED_PRODUCTS = """
+            INSERT INTO trajefino.product (id, name, price, stock, category, brand, barcode, active, created_at, updated_at)
+            SELECT i, 'Produto ' || i, 10 + i % 500, i % 100, 'Categoria ' || i % 40, 'Marca ' || i % 25,
+                   'B' || i, i % 10 <> 0, LOCALTIMESTAMP, LOCALTIMESTAMP
+              FROM generate_series(1, 20000) AS i
+            """;
+
+    // Consulta nova sem entrada aqui faz o teste falhar até o índice esperado ser declarado
+    private static final Map<String, String> EXPECTED_INDEXES = Map.ofEntries(
+            Map.entry("ProductRepository.existsByBarcode", "uk_product_barcode"),
+            Map.entry("ProductRepository.findBarcodeOwners", "uk_product_barcode"),
+            Map.entry("ProductRepository.findByActiveTrue", "ix_product_active_id"),
+            Map.entry("ProductRepository.findByActiveTrueAndIdGreaterThan", "ix_product_active_id"),
+            Map.entry("ProductRepository.findByBarcode", "uk_product_barcode"),
+            Map.entry("ProductRepository.findByCategory", "ix_product_category_id"),
+            Map.entry("ProductRepository.findByCategoryAndIdGreaterThan", "ix_product_category_id"),
+            Map.entry("ProductRepository.findByIdGreaterThan", "product_pkey"),
+            Map.entry("ProductRepository.findByNameContainingIgnoreCase", "ix_product_name_trgm"),
+            Map.entry("ProductRepository.streamAllOrderById", "product_pkey"),
+            Map.entry("AddressRepository.existsByUserIdAndIsDefaultTrue", "ux_address_user_default"),
+            Map.entry("AddressRepository.findByUserId", "ix_address_user_type"),
+            Map.entry("AddressRepository.findByUserIdAndAddressType", "ix_address_user_type"),
+            Map.entry("AddressRepository.findByUserIdAndIsDefaultTrue", "ux_address_user_default"),
+            Map.entry("AddressRepository.findSummariesByUserIdIn", "ix_address_user_type"),
+            Map.entry("UserRepository.existsByUserName", "uk_user_user_name"),
+            Map.entry("UserRepository.findByUserName", "uk_user_user_name"),
+            Map.entry("UserRepository.findSecurityStateById", "user_pkey"),
+            Map.entry("UserRepository.findSummariesAfter", "user_pkey"),
+            Map.entry("UserRepository.findSummaryById", "user_pkey"));
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    // Conexão própria e fora da transação do teste, que é revertida ao final de cada caso
+    @BeforeEach
+    void seedProducts() throws SQLException {
+        if (SEEDED.getAndSet(true)) {
+            return;
+        }
+        try (Connection connection = POSTGRES.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(SEED_PRODUCTS);
+            statement.execute("ANALYZE trajefino.product");
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(ProductRepository.class, AddressRepository.class, UserRepository.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                        .filter(method -> !method.isAnnotationPresent(Modifying.class))
+                        .sorted(Comparator.comparing(Method::getName))
+                        .map(method -> Arguments.of(repository.getSimpleName() + "." + method.getName(), repository, method)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryUsesAnIndex(String name, Class<?> repository, Method method) throws Exception {
+        String expectedIndex = EXPECTED_INDEXES.get(name);
+        assertThat(expectedIndex).as("índice esperado não declarado para %s", name).isNotNull();
+        Object[] arguments = Arrays.stream(method.getParameters()).map(QueryPlanTest::sampleArgument).toArray();
+        PLANS.clear();
+        Object result = method.invoke(applicationContext.getBean(repository), arguments);
+        if (result instanceof Stream<?> stream) {
+            try (stream) {
+                stream.forEach(item -> {
+                });
+            }
+        }
+
+        assertThat(PLANS).as("nenhuma consulta executada por %s", name).isNotEmpty();
+        for (String plan : PLANS) {
+            assertThat(plan).as(name).doesNotContain("Seq Scan");
+        }
+        assertThat(String.join("\n", PLANS)).as("%s deveria usar %s", name, expectedIndex)
+                .containsPattern("(using|on) " + expectedIndex + "\\s");
+    }
+
+    private static Object sampleArgument(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        if (type == String.class) {
+            return "abc";
+        }
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Pageable.class) {
+            // Mesma ordenação do PageCursor, que decide qual índice serve o keyset
+            return PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "id"));
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            Object element = ((ParameterizedType) parameter.getParameterizedType()).getActualTypeArguments()[0];
+            return List.of(element == String.class ? "abc" : 1L);
+        }
+        throw new IllegalArgumentException("Sem valor de exemplo para o parâmetro " + parameter);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível iniciar o PostgreSQL embarcado", e);
+        }
+    }
+
+    @TestConfiguration
+    static class ExplainConfig {
+
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                            ? new ExplainingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    // Cada SELECT preparado é repetido como EXPLAIN na mesma conexão antes de executar
+    static class ExplainingDataSource extends DelegatingDataSource {
+
+        ExplainingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement")
+                                && ((String) args[0]).stripLeading().toLowerCase().startsWith("select")) {
+                            return explaining(connection, (PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement explaining(Connection connection, PreparedStatement statement, String sql) {
+            List<Object[]> parameters = new ArrayList<>();
+            List<Method> setters = new ArrayList<>();
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    setters.add(method);
+                    parameters.add(args);
+                } else if (method.getName().equals("executeQuery") && (args == null || args.length == 0)) {
+                    PLANS.add(explain(connection, sql, setters, parameters));
+                }
+                return invoke(statement, method, args);
+            };
+            return (PreparedStatement) Proxy.newProxyInstance(ExplainingDataSource.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handler);
+        }
+
+        private static String explain(Connection connection, String sql, List<Method> setters,
+                                      List<Object[]> parameters) throws Exception {
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("SET enable_seqscan = off");
+            }
+            StringJoiner plan = new StringJoiner("\n", sql + "\n", "");
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < setters.size(); i++) {
+                    setters.get(i).invoke(explain, parameters.get(i));
+                }
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+            }
+            return plan.toString();
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
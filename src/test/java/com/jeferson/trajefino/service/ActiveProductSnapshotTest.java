@@ -0,0 +1,108 @@
+package com.jeferson.trajefino.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jeferson.trajefino.event.ProductStockChangedEvent;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.AdjustedStock;
+import com.jeferson.trajefino.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActiveProductSnapshotTest {
+
+    private static final int SIZE = PageCursor.DEFAULT_SIZE;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private ActiveProductSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        // Duas páginas cheias e uma parcial
+        when(productRepository.streamAllOrderById())
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, 2L * SIZE + 5).mapToObj(id -> product(id, 10)));
+        snapshot = new ActiveProductSnapshot(productRepository, mock(EntityManager.class),
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        snapshot.load();
+    }
+
+    @Test
+    void pendingWriteBypassesOnlyItsOwnPage() {
+        assertThat(snapshot.page(SIZE).lastId()).isEqualTo(2L * SIZE);
+
+        snapshot.onProductStockChanged(stockChanged(SIZE + 5));
+
+        assertThat(snapshot.page(0)).isNotNull();
+        assertThat(snapshot.page(SIZE)).isNull();
+        assertThat(snapshot.page(2L * SIZE)).isNotNull();
+    }
+
+    @Test
+    void refreshReserializesOnlyChangedPages() {
+        ActiveProductSnapshot.Page first = snapshot.page(0);
+        ActiveProductSnapshot.Page second = snapshot.page(SIZE);
+        ActiveProductSnapshot.Page last = snapshot.page(2L * SIZE);
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(SIZE + 5, 3)));
+
+        snapshot.onProductStockChanged(stockChanged(SIZE + 5));
+        snapshot.refresh();
+
+        assertThat(snapshot.page(0)).isSameAs(first);
+        assertThat(snapshot.page(2L * SIZE)).isSameAs(last);
+        assertThat(snapshot.page(SIZE)).isNotSameAs(second);
+        assertThat(snapshot.page(SIZE).stamp().etag()).isNotEqualTo(second.stamp().etag());
+        assertThat(snapshot.page(SIZE).stamp().lastModified()).isAfter(second.stamp().lastModified());
+    }
+
+    @Test
+    void reloadPicksUpWritesFromOtherInstances() {
+        ActiveProductSnapshot.Page first = snapshot.page(0);
+        ActiveProductSnapshot.Page second = snapshot.page(SIZE);
+        // Escrita feita em outra instância: nenhum evento chega aqui
+        when(productRepository.streamAllOrderById())
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, 2L * SIZE + 5)
+                        .mapToObj(id -> product(id, id == SIZE + 5 ? 3 : 10)));
+
+        snapshot.reload();
+
+        assertThat(snapshot.page(0)).isSameAs(first);
+        assertThat(snapshot.page(SIZE)).isNotSameAs(second);
+        assertThat(new String(snapshot.page(SIZE).identity())).contains("\"stock\":3");
+    }
+
+    @Test
+    void acceptEncodingHonorsQValues() {
+        assertThat(ActiveProductSnapshot.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ActiveProductSnapshot.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(ActiveProductSnapshot.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ActiveProductSnapshot.acceptsGzip("gzip;q=0.000, *")).isFalse();
+        assertThat(ActiveProductSnapshot.acceptsGzip("*")).isTrue();
+        assertThat(ActiveProductSnapshot.acceptsGzip("identity")).isFalse();
+        assertThat(ActiveProductSnapshot.acceptsGzip(null)).isFalse();
+    }
+
+    private static Product product(long id, int stock) {
+        return Product.builder()
+                .id(id)
+                .name("Produto " + id)
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .category("Camisas")
+                .active(true)
+                .build();
+    }
+
+    private static ProductStockChangedEvent stockChanged(long id) {
+        return new ProductStockChangedEvent(List.of(new AdjustedStock(id, 3, "Camisas", true)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.BatchItemResult;
+import com.jeferson.trajefino.model.dto.ProductBatchResult;
+import com.jeferson.trajefino.model.dto.ProductBatchUpdateItem;
+import com.jeferson.trajefino.model.dto.ProductDTO;
+import com.jeferson.trajefino.model.enums.BatchItemStatus;
+import com.jeferson.trajefino.repository.ProductRepository;
+import com.jeferson.trajefino.repository.ProductStockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductBatchServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final BarcodeIndex barcodeIndex = mock(BarcodeIndex.class);
+    private final ProductBatchService service = new ProductBatchService(productRepository,
+            mock(ProductStockRepository.class), mock(ApplicationEventPublisher.class), barcodeIndex);
+
+    @Test
+    void repeatedIdFailsEveryOccurrence() {
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(1L), product(2L)));
+
+        ProductBatchResult result = service.updateProducts(List.of(item(1L, 5), item(2L, 5), item(1L, 8))).getBody();
+
+        assertThat(result.getItems()).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemStatus.FAILED, BatchItemStatus.UPDATED, BatchItemStatus.FAILED);
+        assertThat(result.getItems().get(0).getMessage()).contains("repetido");
+    }
+
+    private static ProductBatchUpdateItem item(long id, int stock) {
+        return new ProductBatchUpdateItem(id, ProductDTO.builder()
+                .name("Produto " + id)
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .category("Camisas")
+                .build());
+    }
+
+    private static Product product(long id) {
+        return Product.builder()
+                .id(id)
+                .name("Produto " + id)
+                .price(BigDecimal.TEN)
+                .stock(10)
+                .category("Camisas")
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.jeferson.trajefino.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockCounterTest {
+
+    @Test
+    void reserveConsumesAvailableStock() {
+        StockCounter counter = new StockCounter(10);
+
+        assertThat(counter.tryReserve(4)).isTrue();
+        assertThat(counter.tryReserve(6)).isTrue();
+
+        assertThat(counter.available()).isZero();
+    }
+
+    @Test
+    void reserveBeyondAvailableIsRejectedWithoutSideEffects() {
+        StockCounter counter = new StockCounter(5);
+        counter.tryReserve(3);
+
+        assertThat(counter.tryReserve(3)).isFalse();
+        assertThat(counter.available()).isEqualTo(2);
+    }
+
+    @Test
+    void releaseReturnsHeldQuantity() {
+        StockCounter counter = new StockCounter(5);
+        counter.tryReserve(3);
+
+        counter.release(3);
+
+        assertThat(counter.available()).isEqualTo(5);
+    }
+
+    @Test
+    void confirmedQuantityStaysUnavailableUntilFlushed() {
+        StockCounter counter = new StockCounter(10);
+        counter.tryReserve(4);
+
+        counter.confirm(4);
+        assertThat(counter.available()).isEqualTo(6);
+
+        // O banco devolve o estoque já com a baixa aplicada
+        counter.flushed(4, 6);
+        assertThat(counter.available()).isEqualTo(6);
+    }
+
+    @Test
+    void flushWithoutStockKeepsBase() {
+        StockCounter counter = new StockCounter(10);
+        counter.tryReserve(4);
+        counter.confirm(4);
+
+        counter.flushed(4, null);
+
+        assertThat(counter.available()).isEqualTo(10);
+    }
+
+    @Test
+    void rejectedFlushResyncedFromDatabaseDropsTheLostUnits() {
+        StockCounter counter = new StockCounter(10);
+        counter.tryReserve(4);
+        counter.confirm(4);
+
+        // Estoque zerado por outro caminho: a baixa é recusada e a base vem do valor atual do banco
+        counter.flushed(4, 0);
+
+        assertThat(counter.available()).isZero();
+        assertThat(counter.tryReserve(1)).isFalse();
+    }
+
+    @Test
+    void resyncKeepsPendingAndHeldQuantities() {
+        StockCounter counter = new StockCounter(10);
+        counter.tryReserve(2);
+        counter.confirm(2);
+        counter.tryReserve(3);
+
+        counter.resync(20);
+
+        assertThat(counter.available()).isEqualTo(15);
+    }
+
+    @Test
+    void flushedBatchDoesNotAffectConfirmationsAfterIt() {
+        StockCounter counter = new StockCounter(10);
+        counter.tryReserve(2);
+        counter.confirm(2);
+        counter.tryReserve(3);
+        counter.confirm(3);
+
+        // Só o primeiro lote (2 unidades) chegou ao banco
+        counter.flushed(2, 8);
+
+        assertThat(counter.available()).isEqualTo(5);
+    }
+
+    @Test
+    void closedCounterRejectsReservations() {
+        StockCounter counter = new StockCounter(10);
+
+        counter.close();
+
+        assertThat(counter.tryReserve(1)).isFalse();
+        assertThat(counter.isClosed()).isTrue();
+    }
+
+    @Test
+    void confirmAfterCloseReleasesTheHold() {
+        StockCounter counter = new StockCounter(10);
+        counter.tryReserve(4);
+
+        counter.close();
+
+        assertThat(counter.confirm(4)).isFalse();
+        assertThat(counter.available()).isEqualTo(10);
+    }
+
+    @Test
+    void reopenedCounterAcceptsReservationsAgain() {
+        StockCounter counter = new StockCounter(10);
+        counter.close();
+
+        counter.reopen();
+
+        assertThat(counter.tryReserve(3)).isTrue();
+    }
+}
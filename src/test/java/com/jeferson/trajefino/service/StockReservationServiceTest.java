@@ -0,0 +1,97 @@
+package com.jeferson.trajefino.service;
+
+import com.jeferson.trajefino.event.ProductChangedEvent;
+import com.jeferson.trajefino.exception.ConflictException;
+import com.jeferson.trajefino.model.Product;
+import com.jeferson.trajefino.model.dto.ReservationDTO;
+import com.jeferson.trajefino.model.dto.ReservationRequestDTO;
+import com.jeferson.trajefino.repository.ProductRepository;
+import com.jeferson.trajefino.repository.ProductStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockReservationServiceTest {
+
+    private static final long PRODUCT_ID = 7L;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private StockReservationService service;
+
+    @BeforeEach
+    void setUp(@TempDir Path journalDir) {
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product(true)));
+        service = new StockReservationService(productRepository, mock(ProductStockRepository.class),
+                mock(ApplicationEventPublisher.class), mock(PlatformTransactionManager.class), journalDir,
+                Duration.ofMinutes(10), Duration.ofHours(1), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void reserveAfterDeactivateIsRejected() {
+        ReservationDTO held = reserve(2);
+
+        service.onProductChanged(new ProductChangedEvent(PRODUCT_ID, product(true), product(false)));
+
+        assertThatThrownBy(() -> reserve(1))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("inativo");
+        assertThatThrownBy(() -> service.confirm(held.getId()))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void heldReservationCanBeReleasedAfterDelete() {
+        ReservationDTO held = reserve(2);
+
+        service.onProductChanged(new ProductChangedEvent(PRODUCT_ID, product(true), null));
+
+        assertThat(service.release(held.getId()).getStatusCode().is2xxSuccessful()).isTrue();
+        assertThatThrownBy(() -> reserve(1)).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void reactivatedProductAcceptsReservationsAgain() {
+        reserve(2);
+        service.onProductChanged(new ProductChangedEvent(PRODUCT_ID, product(true), product(false)));
+
+        service.onProductChanged(new ProductChangedEvent(PRODUCT_ID, product(false), product(true)));
+
+        assertThat(reserve(1)).isNotNull();
+    }
+
+    private ReservationDTO reserve(int quantity) {
+        ReservationRequestDTO request = new ReservationRequestDTO();
+        request.setProductId(PRODUCT_ID);
+        request.setQuantity(quantity);
+        return service.reserve(request).getBody();
+    }
+
+    private static Product product(boolean active) {
+        return Product.builder()
+                .id(PRODUCT_ID)
+                .name("Produto")
+                .price(BigDecimal.TEN)
+                .stock(10)
+                .active(active)
+                .build();
+    }
+}